@@ -0,0 +1,136 @@
+package com.artecomcarinho.benchmark;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.config.ProductSearchIndexInitializer;
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.mapper.ProductMapper;
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.repository.CustomerRepository;
+import com.artecomcarinho.repository.ProductRepository;
+import com.artecomcarinho.security.AccessControlService;
+import com.artecomcarinho.service.DailySalesRollupService;
+import com.artecomcarinho.service.NotificationService;
+import com.artecomcarinho.service.OrderNumberAllocator;
+import com.artecomcarinho.service.OrderPdfService;
+import com.artecomcarinho.service.OrderService;
+import com.artecomcarinho.service.OrderStatsService;
+import com.artecomcarinho.service.ProductFacetIndex;
+import com.artecomcarinho.service.ProductService;
+import com.artecomcarinho.service.ProductSnapshotLoader;
+import com.artecomcarinho.service.ProductSuggestionIndex;
+import com.artecomcarinho.service.ProductionPdfService;
+import org.mockito.Mockito;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Contexto mínimo dos benchmarks: serviços reais sobre H2 em memória, sem web, e-mail nem OAuth.
+ * Usa spring.config.name=benchmark para não carregar o application.properties de produção.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EnableJpaAuditing
+@EntityScan(basePackageClasses = Product.class)
+@EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+@ComponentScan(basePackageClasses = ProductMapper.class)
+@Import({
+        CacheConfig.class,
+        ProductService.class,
+        ProductSearchIndexInitializer.class,
+        ProductSuggestionIndex.class,
+        ProductFacetIndex.class,
+        ProductSnapshotLoader.class,
+        OrderService.class,
+        OrderNumberAllocator.class,
+        AccessControlService.class,
+        DailySalesRollupService.class,
+        OrderStatsService.class,
+        OrderPdfService.class,
+        ProductionPdfService.class
+})
+public class BenchmarkApplication {
+
+    @Bean
+    NotificationService notificationService() {
+        return Mockito.mock(NotificationService.class);
+    }
+
+    /**
+     * Sobe o contexto e grava {@code products} produtos e {@code orders} pedidos de 1 a 4 itens.
+     * {@code properties} sobrescrevem as de base (ex.: {@code hibernate.jdbc.batch_size}).
+     */
+    public static ConfigurableApplicationContext start(int products, int orders, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.config.name=benchmark",
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+
+        seed(context, products, orders);
+        return context;
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int productCount, int orderCount) {
+        Random random = new Random(42);
+        Customer customer = context.getBean(CustomerRepository.class).save(
+                Customer.builder().name("Cliente Benchmark").email("benchmark@example.com").build());
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            products.add(fixtureProduct(i));
+        }
+        products = context.getBean(ProductRepository.class).saveAll(products);
+
+        OrderService orderService = context.getBean(OrderService.class);
+        for (int i = 0; i < orderCount; i++) {
+            OrderDTO order = new OrderDTO();
+            order.setCustomerId(customer.getId());
+            int lines = 1 + random.nextInt(4);
+            for (int line = 0; line < lines; line++) {
+                OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+                item.setProductId(products.get(random.nextInt(products.size())).getId());
+                item.setQuantity(1 + random.nextInt(3));
+                order.getItems().add(item);
+            }
+            orderService.createOrder(order);
+        }
+    }
+
+    public static Product fixtureProduct(int i) {
+        return Product.builder()
+                .name("Produto " + i)
+                .description("Peça bordada à mão, tecido 100% algodão, número " + i)
+                .category(Product.ProductCategory.values()[i % Product.ProductCategory.values().length])
+                .price(new BigDecimal(19 + (i % 200)).add(new BigDecimal("0.90")))
+                .stock(1_000_000)
+                .sku("SKU-" + i)
+                .featured(i % 10 == 0)
+                .customizable(i % 3 == 0)
+                .images(new ArrayList<>(List.of("https://cdn.example.com/" + i + "/1.jpg", "https://cdn.example.com/" + i + "/2.jpg")))
+                .sizes(new ArrayList<>(List.of("P", "M", "G")))
+                .colors(new ArrayList<>(List.of("Rosa", "Azul")))
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.artecomcarinho.benchmark;
+
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.dto.ProductDTO;
+import com.artecomcarinho.mapper.OrderMapper;
+import com.artecomcarinho.mapper.OrderMapperImpl;
+import com.artecomcarinho.mapper.ProductMapper;
+import com.artecomcarinho.mapper.ProductMapperImpl;
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.Order;
+import com.artecomcarinho.model.OrderItem;
+import com.artecomcarinho.model.Product;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade -> DTO em memória (sem banco): mappers gerados pelo MapStruct contra o
+ * ModelMapper com a configuração que a aplicação usava antes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"20", "200"})
+    public int size;
+
+    private ProductMapper productMapper;
+    private OrderMapper orderMapper;
+    private ModelMapper modelMapper;
+    private List<Product> products;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        productMapper = new ProductMapperImpl();
+        orderMapper = new OrderMapperImpl();
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STANDARD)
+                .setSkipNullEnabled(true)
+                .setAmbiguityIgnored(true);
+
+        products = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Product product = BenchmarkApplication.fixtureProduct(i);
+            product.setId((long) i + 1);
+            products.add(product);
+        }
+
+        Customer customer = Customer.builder().id(1L).name("Cliente Benchmark").email("benchmark@example.com").build();
+        orders = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Order order = Order.builder()
+                    .id((long) i + 1)
+                    .orderNumber("PED-" + i)
+                    .customer(customer)
+                    .status(Order.OrderStatus.PENDING)
+                    .orderDate(LocalDateTime.now())
+                    .totalAmount(new BigDecimal("120.00"))
+                    .items(new ArrayList<>())
+                    .build();
+            for (int line = 0; line < 3; line++) {
+                order.getItems().add(OrderItem.builder()
+                        .id((long) i * 3 + line)
+                        .order(order)
+                        .product(products.get((i + line) % products.size()))
+                        .quantity(2)
+                        .unitPrice(new BigDecimal("40.00"))
+                        .subtotal(new BigDecimal("80.00"))
+                        .build());
+            }
+            orders.add(order);
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> productMapStruct() {
+        return products.stream().map(productMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public List<ProductDTO> productModelMapper() {
+        return products.stream().map(product -> modelMapper.map(product, ProductDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<OrderDTO> orderMapStruct() {
+        return orders.stream().map(orderMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public List<OrderDTO> orderModelMapper() {
+        return orders.stream().map(order -> modelMapper.map(order, OrderDTO.class)).toList();
+    }
+}
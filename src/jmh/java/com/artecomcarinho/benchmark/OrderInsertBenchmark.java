@@ -0,0 +1,126 @@
+package com.artecomcarinho.benchmark;
+
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.Order;
+import com.artecomcarinho.model.OrderItem;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.repository.CustomerRepository;
+import com.artecomcarinho.repository.OrderRepository;
+import com.artecomcarinho.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação de pedidos com itens no PostgreSQL (Testcontainers, precisa de Docker): {@value #ORDERS}
+ * pedidos de {@value #ITEMS} itens por transação. Compara a sequence com pooled atual com o
+ * mapeamento IDENTITY anterior (benchmark/identity-orm.xml), cada um com
+ * {@code hibernate.jdbc.batch_size} 1 (uma linha por comando) e 50. O resultado é em linhas por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderInsertBenchmark {
+
+    private static final int ORDERS = 50;
+    private static final int ITEMS = 10;
+
+    @Param({"sequence", "identity"})
+    public String idGeneration;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private PostgreSQLContainer postgres;
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private Customer customer;
+    private List<Product> products;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer("postgres:16-alpine");
+        postgres.start();
+
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword(),
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize));
+        if ("identity".equals(idGeneration)) {
+            properties.add("spring.jpa.mapping-resources=benchmark/identity-orm.xml");
+        }
+        context = BenchmarkApplication.start(ITEMS, 0, properties.toArray(String[]::new));
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        customer = context.getBean(CustomerRepository.class).findAll().get(0);
+        products = context.getBean(ProductRepository.class).findAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS * (ITEMS + 1))
+    public List<Order> insertOrders() {
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(order());
+        }
+        return transactionTemplate.execute(status -> orderRepository.saveAll(orders));
+    }
+
+    private Order order() {
+        Order order = Order.builder()
+                .orderNumber("BENCH-" + sequence++)
+                .customer(customer)
+                .status(Order.OrderStatus.PENDING)
+                .orderDate(LocalDateTime.now())
+                .discount(BigDecimal.ZERO)
+                .shippingCost(BigDecimal.ZERO)
+                .build();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Product product : products) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setUnitPrice(product.getPrice());
+            item.calculateSubtotal();
+            order.getItems().add(item);
+            total = total.add(item.getSubtotal());
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+}
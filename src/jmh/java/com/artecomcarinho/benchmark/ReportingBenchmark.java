@@ -0,0 +1,100 @@
+package com.artecomcarinho.benchmark;
+
+import com.artecomcarinho.dto.OrderStatusStatsDTO;
+import com.artecomcarinho.dto.OrderSummaryStatsDTO;
+import com.artecomcarinho.dto.TopProductStatsDTO;
+import com.artecomcarinho.repository.OrderRepository;
+import com.artecomcarinho.service.OrderPdfService;
+import com.artecomcarinho.service.OrderStatsService;
+import com.artecomcarinho.service.ProductionPdfService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estatísticas do dashboard e geração de PDF sobre H2 com {@code orders} pedidos.
+ * Tamanho configurável: {@code -Djmh.args="-p orders=10000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportingBenchmark {
+
+    @Param({"200"})
+    public int products;
+
+    @Param({"2000"})
+    public int orders;
+
+    private ConfigurableApplicationContext context;
+    private OrderStatsService orderStatsService;
+    private OrderPdfService orderPdfService;
+    private ProductionPdfService productionPdfService;
+    private TransactionTemplate transactionTemplate;
+    private Long orderId;
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(products, orders);
+        orderStatsService = context.getBean(OrderStatsService.class);
+        orderPdfService = context.getBean(OrderPdfService.class);
+        productionPdfService = context.getBean(ProductionPdfService.class);
+        // Na aplicação os PDFs rodam com open-in-view; aqui a transação mantém a sessão aberta
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        orderId = context.getBean(OrderRepository.class).findAll().get(0).getId();
+        end = LocalDate.now();
+        start = end.minusDays(30);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderSummaryStatsDTO statsSummary() {
+        return orderStatsService.getSummary(start, end);
+    }
+
+    @Benchmark
+    public List<TopProductStatsDTO> statsTopProducts() {
+        return orderStatsService.getTopProducts(start, end, 10);
+    }
+
+    @Benchmark
+    public List<OrderStatusStatsDTO> statsByStatus() {
+        return orderStatsService.getOrdersByStatusStats();
+    }
+
+    @Benchmark
+    public byte[] orderPdf() {
+        return transactionTemplate.execute(status -> orderPdfService.generateOrderPdf(orderId));
+    }
+
+    @Benchmark
+    public byte[] productionPdf() {
+        return transactionTemplate.execute(status -> productionPdfService.generateProductionPdf(orderId));
+    }
+}
@@ -0,0 +1,99 @@
+package com.artecomcarinho.benchmark;
+
+import com.artecomcarinho.exception.TooManyRequestsException;
+import com.artecomcarinho.model.User;
+import com.artecomcarinho.security.InMemoryRateLimitStore;
+import com.artecomcarinho.security.JwtPrincipal;
+import com.artecomcarinho.security.JwtUtil;
+import com.artecomcarinho.security.RateLimitService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da camada de segurança: validar o JWT e passar pelo rate limit.
+ * Roda com 4 threads para o rate limit disputar os mesmos buckets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SecurityBenchmark {
+
+    // Poucas chaves simulam muitas requisições do mesmo IP; muitas, tráfego espalhado
+    @Param({"16", "10000"})
+    public int rateLimitKeys;
+
+    private static final String SECRET = "benchmark-secret-with-at-least-32-bytes!!";
+
+    private JwtUtil jwtUtil;
+    private RateLimitService rateLimitService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "passwordResetExpiration", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "validateConfiguration");
+
+        token = jwtUtil.generateToken(User.builder()
+                .id(1L)
+                .email("benchmark@example.com")
+                .role(User.Role.CUSTOMER)
+                .build());
+
+        rateLimitService = new RateLimitService(new InMemoryRateLimitStore());
+        ReflectionTestUtils.setField(rateLimitService, "enabled", true);
+    }
+
+    // O que o filtro faz por requisição: um parse com a chave e o parser já prontos
+    @Benchmark
+    public JwtPrincipal jwtParseAccessToken() {
+        return jwtUtil.parseAccessToken(token);
+    }
+
+    // Referência: derivar a chave e montar o parser a cada chamada, como era antes
+    @Benchmark
+    public Claims jwtParseRebuildingKey() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    // Com poucas chaves quase tudo é recusado: mede também o custo da recusa sob ataque
+    @Benchmark
+    public boolean rateLimitCheck() {
+        String key = "10.0.0." + ThreadLocalRandom.current().nextInt(rateLimitKeys);
+        try {
+            rateLimitService.check("api", key, 100, Duration.ofSeconds(1));
+            return true;
+        } catch (TooManyRequestsException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.artecomcarinho.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache em memória do catálogo (vitrine). As evicções feitas dentro de uma transação
+ * só acontecem depois do commit, para que uma leitura concorrente não recoloque no
+ * cache o produto antigo.
+ * <p>
+ * Pedidos mexem no estoque a toda hora e só tiram do cache os produtos que alteraram
+ * ({@link #PRODUCTS}). Páginas e destaques ({@link #PRODUCT_PAGES}, {@link #FEATURED_PRODUCTS})
+ * não são esvaziados por pedido: têm validade curta, e o estoque neles pode atrasar até lá.
+ * <p>
+ * Também guarda os usuários autenticados pelo JWT ({@link #PRINCIPALS}), com validade curta
+ * para que mudanças feitas em outro nó apareçam em poucos segundos.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_PAGES = "productPages";
+    public static final String FEATURED_PRODUCTS = "featuredProducts";
+    public static final String PRINCIPALS = "principals";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.catalog.spec:maximumSize=1000,expireAfterWrite=10m,recordStats}") String spec,
+            @Value("${app.cache.listings.spec:maximumSize=500,expireAfterWrite=30s,recordStats}") String listingsSpec,
+            @Value("${app.cache.principals.spec:maximumSize=10000,expireAfterWrite=60s,recordStats}") String principalsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTS);
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PRODUCT_PAGES, Caffeine.from(CaffeineSpec.parse(listingsSpec)).build());
+        cacheManager.registerCustomCache(FEATURED_PRODUCTS, Caffeine.from(CaffeineSpec.parse(listingsSpec)).build());
+        cacheManager.registerCustomCache(PRINCIPALS, Caffeine.from(CaffeineSpec.parse(principalsSpec)).build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,37 @@
+package com.artecomcarinho.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Identificação do banco para o que só existe no PostgreSQL (sequences, busca textual,
+ * rate limit compartilhado). Nos testes o banco é H2 e esses recursos ficam desligados.
+ */
+@Slf4j
+public final class DatabasePlatform {
+
+    /**
+     * Nome do bean do EntityManagerFactory: com {@code @DependsOn(SCHEMA_UPDATED)} o bean só
+     * roda depois que o ddl-auto do Hibernate criou ou alterou as tabelas.
+     */
+    public static final String SCHEMA_UPDATED = "entityManagerFactory";
+
+    private DatabasePlatform() {
+    }
+
+    /**
+     * Falha ao consultar o banco conta como "não é PostgreSQL"; {@code purpose} vai para o log.
+     */
+    public static boolean isPostgres(DataSource dataSource, String purpose) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (Exception e) {
+            log.warn("Nao foi possivel identificar o banco para {}", purpose, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.artecomcarinho.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Prepara a busca textual de produtos no PostgreSQL: configuração pt_unaccent
+ * (português com stemming e sem acentos), coluna gerada search_vector e índice GIN.
+ * Tudo é idempotente. Em outros bancos (H2 nos testes) ou se faltar permissão para a
+ * extensão unaccent, a busca continua no LIKE antigo.
+ */
+@Slf4j
+@Component
+@DependsOn(DatabasePlatform.SCHEMA_UPDATED)
+public class ProductSearchIndexInitializer {
+
+    public static final String TS_CONFIG = "pt_unaccent";
+
+    private static final String[] DDL = {
+            "CREATE EXTENSION IF NOT EXISTS unaccent",
+            """
+            DO $$
+            BEGIN
+                IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'pt_unaccent') THEN
+                    CREATE TEXT SEARCH CONFIGURATION pt_unaccent (COPY = pg_catalog.portuguese);
+                    ALTER TEXT SEARCH CONFIGURATION pt_unaccent
+                        ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+                END IF;
+            END
+            $$
+            """,
+            """
+            ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('pt_unaccent'::regconfig, coalesce(name, '')), 'A') ||
+                    setweight(to_tsvector('pt_unaccent'::regconfig, coalesce(sku, '')), 'A') ||
+                    setweight(to_tsvector('pt_unaccent'::regconfig, coalesce(description, '')), 'B')
+                ) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private volatile boolean available;
+
+    public ProductSearchIndexInitializer(DataSource dataSource,
+                                         @Value("${app.search.full-text.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!enabled || !DatabasePlatform.isPostgres(jdbcTemplate.getDataSource(), "a busca textual")) {
+            return;
+        }
+
+        try {
+            for (String statement : DDL) {
+                jdbcTemplate.execute(statement);
+            }
+            available = true;
+            log.info("Busca textual de produtos ativa (tsvector + GIN)");
+        } catch (Exception e) {
+            log.warn("Nao foi possivel preparar a busca textual de produtos; usando LIKE", e);
+        }
+    }
+
+    /**
+     * Indica se a coluna search_vector e o índice estão prontos para uso.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -2,6 +2,7 @@ package com.artecomcarinho.config;
 
 import com.artecomcarinho.security.JwtAuthenticationFilter;
 import com.artecomcarinho.security.OAuth2AuthenticationSuccessHandler;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -61,6 +62,8 @@ public class SecurityConfig {
                 )
                 .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(auth -> {
+                    // Dispatch assíncrono só finaliza respostas já autorizadas (ex.: stream SSE do quadro de produção)
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     auth.requestMatchers("/api/oauth2/**", "/oauth2/**").permitAll();
                     auth.requestMatchers("/api/login/oauth2/**", "/login/oauth2/**").permitAll();
                     auth.requestMatchers("/api/auth/**").permitAll();
@@ -69,6 +72,8 @@ public class SecurityConfig {
                     if (swaggerEnabled) {
                         auth.requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll();
                     }
+                    auth.requestMatchers("/actuator/health").permitAll();
+                    auth.requestMatchers("/actuator/**").hasRole("ADMIN");
                     auth.requestMatchers("/api/users/me").authenticated();
                     auth.requestMatchers("/api/products/admin/**", "/api/products/low-stock", "/api/products/stats/**")
                             .hasRole("ADMIN");
@@ -0,0 +1,56 @@
+package com.artecomcarinho.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * As tabelas abaixo nasceram com IDENTITY e passaram a usar sequences com allocationSize 50.
+ * O ddl-auto cria as sequences começando em 1, então no PostgreSQL elas são avançadas
+ * até o maior id existente antes de qualquer insert. Só avança, nunca volta: outro nó
+ * pode estar usando um bloco já reservado.
+ */
+@Slf4j
+@Component
+@DependsOn(DatabasePlatform.SCHEMA_UPDATED)
+public class SequenceAligner {
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items",
+            "products_seq", "products",
+            "payments_seq", "payments",
+            "customers_seq", "customers",
+            "addresses_seq", "addresses"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public SequenceAligner(DataSource dataSource, @Value("${app.db.align-sequences:true}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        if (!enabled || !DatabasePlatform.isPostgres(jdbcTemplate.getDataSource(), "alinhar sequences")) {
+            return;
+        }
+
+        SEQUENCES.forEach((sequence, table) -> {
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST("
+                            + "(SELECT COALESCE(MAX(id), 0) FROM " + table + "), "
+                            + "(SELECT last_value FROM " + sequence + ")))",
+                    Long.class);
+            log.debug("Sequence {} alinhada em {}", sequence, value);
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.artecomcarinho.controller;
+
+import com.artecomcarinho.dto.ResourceVersionDTO;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional: compara o validador com If-None-Match/If-Modified-Since antes de montar
+ * a resposta, então um 304 não carrega DTOs nem serializa JSON.
+ */
+final class ConditionalResponses {
+
+    /**
+     * Catálogo público: o navegador sempre revalida (barato, com 304) e a CDN pode
+     * servir a mesma resposta por até 60 segundos.
+     */
+    static final CacheControl PUBLIC_CATALOG = CacheControl.maxAge(Duration.ZERO)
+            .sMaxAge(Duration.ofSeconds(60))
+            .cachePublic();
+
+    // Dados internos: nada de cache compartilhado, mas revalidação com 304 continua valendo
+    static final CacheControl PRIVATE_REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> ok(WebRequest request, ResourceVersionDTO version, String variant,
+                                    CacheControl cacheControl, Supplier<T> body) {
+        String eTag = version.eTag(variant);
+        if (request.checkNotModified(eTag, version.lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(eTag)
+                .lastModified(version.lastModifiedMillis())
+                .body(body.get());
+    }
+}
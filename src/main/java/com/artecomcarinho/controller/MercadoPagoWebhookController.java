@@ -1,5 +1,6 @@
 package com.artecomcarinho.controller;
 
+import com.artecomcarinho.event.OrderStatusChangedEvent;
 import com.artecomcarinho.model.Order;
 import com.artecomcarinho.model.Payment;
 import com.artecomcarinho.model.enums.PaymentStatus;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -51,6 +53,7 @@ public class MercadoPagoWebhookController {
 
     private final OrderRepository orderRepository;
     private final PaymentRepository paymentRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final RestTemplate restTemplate = new RestTemplate();
 
     @PostMapping
@@ -103,9 +106,11 @@ public class MercadoPagoWebhookController {
 
         if (newStatus == PaymentStatus.PAID) {
             Order order = payment.getOrder();
+            Order.OrderStatus oldStatus = order.getStatus();
             order.setPaymentStatus(Order.PaymentStatus.PAID);
             order.setStatus(Order.OrderStatus.IN_PRODUCTION);
             orderRepository.save(order);
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, oldStatus));
         }
 
         return ResponseEntity.ok().build();
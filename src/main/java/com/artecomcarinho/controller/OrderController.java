@@ -1,5 +1,6 @@
 package com.artecomcarinho.controller;
 
+import com.artecomcarinho.dto.CursorPageDTO;
 import com.artecomcarinho.dto.OrderDTO;
 import com.artecomcarinho.model.Order.OrderStatus;
 import com.artecomcarinho.service.OrderService;
@@ -48,6 +49,15 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders(pageable));
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/scroll")
+    @Operation(summary = "Listar pedidos por cursor", description = "Paginação por keyset (orderDate, id), sem contagem total")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> scrollOrders(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.scrollOrders(after, size));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar pedido por ID", description = "Retorna um pedido pelo ID")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id, Authentication authentication) {
@@ -78,6 +88,16 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByStatus(status, pageable));
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/status/{status}/scroll")
+    @Operation(summary = "Listar pedidos por status via cursor", description = "Paginação por keyset (orderDate, id), sem contagem total")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> scrollOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.scrollOrdersByStatus(status, after, size));
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/date-range")
     @Operation(summary = "Buscar pedidos por periodo", description = "Retorna pedidos em um periodo especifico")
@@ -4,11 +4,13 @@ import com.artecomcarinho.dto.MonthlyRevenueDTO;
 import com.artecomcarinho.dto.OrderStatusStatsDTO;
 import com.artecomcarinho.dto.OrderSummaryStatsDTO;
 import com.artecomcarinho.dto.TopProductStatsDTO; // <--- Importante adicionar este import
+import com.artecomcarinho.service.DailySalesRollupService;
 import com.artecomcarinho.service.OrderStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +25,7 @@ import java.util.List;
 public class OrderStatsController {
 
     private final OrderStatsService orderStatsService;
+    private final DailySalesRollupService dailySalesRollupService;
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/summary")
@@ -58,4 +61,12 @@ public class OrderStatsController {
     ) {
         return orderStatsService.getTopProducts(start, end, limit);
     }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/rollup/rebuild")
+    @Operation(summary = "Recalcular consolidado", description = "Recalcula do zero o consolidado diário de vendas usado nas estatísticas")
+    public ResponseEntity<Void> rebuildRollup() {
+        dailySalesRollupService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
 }
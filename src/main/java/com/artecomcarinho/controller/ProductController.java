@@ -1,5 +1,6 @@
 package com.artecomcarinho.controller;
 
+import com.artecomcarinho.dto.CursorPageDTO;
 import com.artecomcarinho.dto.ProductDTO;
 import com.artecomcarinho.model.Product.ProductCategory;
 import com.artecomcarinho.service.ProductService;
@@ -14,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,28 +31,43 @@ public class ProductController {
     @GetMapping
     @Operation(summary = "Listar todos os produtos", description = "Retorna lista paginada de produtos ativos")
     public ResponseEntity<Page<ProductDTO>> getAllProducts(
-            @PageableDefault(size = 20, sort = "name") Pageable pageable) {
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+            @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            WebRequest request) {
+        return ConditionalResponses.ok(request, productService.getActiveProductsVersion(), "all:" + pageable,
+                ConditionalResponses.PUBLIC_CATALOG, () -> productService.getAllProducts(pageable));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Listar produtos por cursor", description = "Paginação por keyset (id), sem contagem total")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> scrollProducts(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.scrollProducts(after, size));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar produto por ID", description = "Retorna um produto específico pelo ID")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, WebRequest request) {
+        return ConditionalResponses.ok(request, productService.getProductVersion(id), "product:" + id,
+                ConditionalResponses.PUBLIC_CATALOG, () -> productService.getProductById(id));
     }
 
     @GetMapping("/category/{category}")
     @Operation(summary = "Buscar produtos por categoria", description = "Retorna produtos de uma categoria específica")
     public ResponseEntity<Page<ProductDTO>> getProductsByCategory(
             @PathVariable ProductCategory category,
-            @PageableDefault(size = 20) Pageable pageable) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category, pageable));
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        return ConditionalResponses.ok(request, productService.getCategoryVersion(category),
+                "category:" + category + ":" + pageable,
+                ConditionalResponses.PUBLIC_CATALOG, () -> productService.getProductsByCategory(category, pageable));
     }
 
     @GetMapping("/featured")
     @Operation(summary = "Buscar produtos em destaque", description = "Retorna produtos marcados como destaque")
-    public ResponseEntity<List<ProductDTO>> getFeaturedProducts() {
-        return ResponseEntity.ok(productService.getFeaturedProducts());
+    public ResponseEntity<List<ProductDTO>> getFeaturedProducts(WebRequest request) {
+        return ConditionalResponses.ok(request, productService.getFeaturedVersion(), "featured",
+                ConditionalResponses.PUBLIC_CATALOG, productService::getFeaturedProducts);
     }
 
     @GetMapping("/search")
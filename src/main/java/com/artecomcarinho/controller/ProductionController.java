@@ -1,12 +1,24 @@
 package com.artecomcarinho.controller;
 
+import com.artecomcarinho.dto.BulkProductionResultDTO;
+import com.artecomcarinho.dto.BulkProductionUpdateDTO;
 import com.artecomcarinho.dto.ProductionBoardDTO;
 import com.artecomcarinho.dto.ProductionCardDTO;
 import com.artecomcarinho.dto.UpdateProductionDTO;
+import com.artecomcarinho.model.enums.ProductionStage;
+import com.artecomcarinho.service.ProductionBoardEventHub;
 import com.artecomcarinho.service.ProductionService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/production")
@@ -16,10 +28,23 @@ import org.springframework.web.bind.annotation.*;
 public class ProductionController {
 
     private final ProductionService productionService;
+    private final ProductionBoardEventHub boardEventHub;
 
     @GetMapping("/board")
-    public ProductionBoardDTO getBoard() {
-        return productionService.getBoard();
+    public ResponseEntity<ProductionBoardDTO> getBoard(WebRequest request) {
+        return ConditionalResponses.ok(request, productionService.getBoardVersion(), "board",
+                ConditionalResponses.PRIVATE_REVALIDATE, productionService::getBoard);
+    }
+
+    @GetMapping(value = "/board/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBoard() {
+        return boardEventHub.subscribe();
+    }
+
+    @GetMapping("/board/columns/{stage}")
+    public Page<ProductionCardDTO> getColumn(@PathVariable ProductionStage stage,
+                                             @PageableDefault(size = 20) Pageable pageable) {
+        return productionService.getColumn(stage, pageable);
     }
 
     @GetMapping("/orders/{orderId}")
@@ -33,6 +58,11 @@ public class ProductionController {
         return productionService.update(orderId, dto);
     }
 
+    @PostMapping("/orders/bulk")
+    public BulkProductionResultDTO bulkUpdate(@Valid @RequestBody BulkProductionUpdateDTO dto) {
+        return productionService.bulkUpdate(dto);
+    }
+
     @PostMapping("/orders/{orderId}/next")
     public ProductionCardDTO next(@PathVariable Long orderId) {
         return productionService.moveNext(orderId);
@@ -1,15 +1,22 @@
 package com.artecomcarinho.controller;
 
+import com.artecomcarinho.dto.FacetedProductPageDTO;
 import com.artecomcarinho.dto.ProductDTO;
+import com.artecomcarinho.dto.ProductFacetFilterDTO;
+import com.artecomcarinho.dto.ProductSuggestionDTO;
 import com.artecomcarinho.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,7 +31,23 @@ public class PublicProductController {
 
     @GetMapping("/featured")
     @Operation(summary = "Listar produtos em destaque", description = "Retorna apenas os produtos marcados como destaque para a Home Page")
-    public ResponseEntity<List<ProductDTO>> getFeaturedProducts() {
-        return ResponseEntity.ok(productService.getFeaturedProducts());
+    public ResponseEntity<List<ProductDTO>> getFeaturedProducts(WebRequest request) {
+        return ConditionalResponses.ok(request, productService.getFeaturedVersion(), "featured",
+                ConditionalResponses.PUBLIC_CATALOG, productService::getFeaturedProducts);
+    }
+
+    @GetMapping("/browse")
+    @Operation(summary = "Navegar por facetas",
+            description = "Filtra por categorias, sizes, colors, prices (faixas) e customizable; retorna a página e as contagens de cada faceta")
+    public FacetedProductPageDTO browse(ProductFacetFilterDTO filter,
+                                        @PageableDefault(size = 20) Pageable pageable) {
+        return productService.browse(filter, pageable);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Sugestões de busca", description = "Autocomplete por nome, SKU e categoria; responde da memória, sem consultar o banco")
+    public List<ProductSuggestionDTO> suggest(@RequestParam(name = "q", defaultValue = "") String query,
+                                              @RequestParam(defaultValue = "8") int limit) {
+        return productService.suggest(query, limit);
     }
 }
\ No newline at end of file
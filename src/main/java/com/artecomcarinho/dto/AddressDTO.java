@@ -1,6 +1,5 @@
 package com.artecomcarinho.dto;
 
-import com.artecomcarinho.model.Address;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
@@ -35,16 +34,4 @@ public class AddressDTO {
     private String state;
 
     private boolean isDefault;
-
-    public AddressDTO(Address address) {
-        this.id = address.getId();
-        this.zipCode = address.getZipCode();
-        this.street = address.getStreet();
-        this.number = address.getNumber();
-        this.complement = address.getComplement();
-        this.neighborhood = address.getNeighborhood();
-        this.city = address.getCity();
-        this.state = address.getState();
-        this.isDefault = address.isDefault();
-    }
-}
\ No newline at end of file
+}
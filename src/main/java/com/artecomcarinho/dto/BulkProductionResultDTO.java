@@ -0,0 +1,25 @@
+package com.artecomcarinho.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkProductionResultDTO {
+
+    private List<ProductionCardDTO> cards;
+    private List<Result> results;
+
+    public enum Outcome {
+        UPDATED,
+        // Já estava no estágio/status pedido
+        UNCHANGED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    public record Result(Long orderId, Outcome outcome) {
+    }
+}
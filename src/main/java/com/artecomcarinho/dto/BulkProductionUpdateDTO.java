@@ -0,0 +1,21 @@
+package com.artecomcarinho.dto;
+
+import com.artecomcarinho.model.enums.ProductionStage;
+import com.artecomcarinho.model.enums.ProductionStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkProductionUpdateDTO {
+
+    @NotEmpty(message = "Informe ao menos um pedido")
+    @Size(max = 500, message = "Maximo de 500 pedidos por vez")
+    private List<Long> orderIds;
+
+    // Ao menos um dos dois deve vir preenchido
+    private ProductionStage stage;
+    private ProductionStatus status;
+}
@@ -0,0 +1,24 @@
+package com.artecomcarinho.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+
+    /**
+     * Cursor opaco para buscar a próxima página (parâmetro {@code after}); nulo na última página.
+     */
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    private int size;
+}
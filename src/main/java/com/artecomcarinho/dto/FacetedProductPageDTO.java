@@ -0,0 +1,6 @@
+package com.artecomcarinho.dto;
+
+import org.springframework.data.domain.Page;
+
+public record FacetedProductPageDTO(Page<ProductDTO> products, ProductFacetCountsDTO facets) {
+}
@@ -25,4 +25,29 @@ public class MonthlyRevenueDTO {
      * Quantidade de pedidos entregues no mês.
      */
     private long orders;
+
+    /**
+     * Usado pelas consultas agregadas: recebe o número do mês (1 a 12).
+     */
+    public MonthlyRevenueDTO(Integer month, BigDecimal revenue, Long orders) {
+        this(monthLabel(month), revenue, orders != null ? orders : 0L);
+    }
+
+    public static String monthLabel(int month) {
+        return switch (month) {
+            case 1 -> "Jan";
+            case 2 -> "Fev";
+            case 3 -> "Mar";
+            case 4 -> "Abr";
+            case 5 -> "Mai";
+            case 6 -> "Jun";
+            case 7 -> "Jul";
+            case 8 -> "Ago";
+            case 9 -> "Set";
+            case 10 -> "Out";
+            case 11 -> "Nov";
+            case 12 -> "Dez";
+            default -> String.valueOf(month);
+        };
+    }
 }
@@ -0,0 +1,34 @@
+package com.artecomcarinho.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Faixas de preço da vitrine; mínimo inclusivo, máximo exclusivo.
+ */
+public enum PriceBucket {
+    ATE_50(null, new BigDecimal("50")),
+    DE_50_A_100(new BigDecimal("50"), new BigDecimal("100")),
+    DE_100_A_200(new BigDecimal("100"), new BigDecimal("200")),
+    ACIMA_DE_200(new BigDecimal("200"), null);
+
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    PriceBucket(BigDecimal min, BigDecimal max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public static PriceBucket of(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        for (PriceBucket bucket : values()) {
+            if ((bucket.min == null || price.compareTo(bucket.min) >= 0)
+                    && (bucket.max == null || price.compareTo(bucket.max) < 0)) {
+                return bucket;
+            }
+        }
+        return null;
+    }
+}
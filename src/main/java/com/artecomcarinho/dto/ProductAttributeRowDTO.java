@@ -0,0 +1,7 @@
+package com.artecomcarinho.dto;
+
+/**
+ * Um tamanho ou uma cor de produto, com o id do produto para agrupar.
+ */
+public record ProductAttributeRowDTO(Long productId, String value) {
+}
@@ -0,0 +1,18 @@
+package com.artecomcarinho.dto;
+
+import com.artecomcarinho.model.Product.ProductCategory;
+
+import java.util.Map;
+
+/**
+ * Quantos produtos cada valor de faceta traria, considerando os filtros das outras facetas.
+ * Só aparecem valores com pelo menos um produto.
+ */
+public record ProductFacetCountsDTO(
+        Map<ProductCategory, Integer> categories,
+        Map<String, Integer> sizes,
+        Map<String, Integer> colors,
+        Map<PriceBucket, Integer> prices,
+        int customizable
+) {
+}
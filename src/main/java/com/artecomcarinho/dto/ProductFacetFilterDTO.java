@@ -0,0 +1,25 @@
+package com.artecomcarinho.dto;
+
+import com.artecomcarinho.model.Product.ProductCategory;
+
+import java.util.Set;
+
+/**
+ * Filtros da navegação por facetas. Valores da mesma faceta combinam com OU,
+ * facetas diferentes com E. Faceta nula ou vazia não filtra.
+ */
+public record ProductFacetFilterDTO(
+        Set<ProductCategory> categories,
+        Set<String> sizes,
+        Set<String> colors,
+        Set<PriceBucket> prices,
+        Boolean customizable
+) {
+
+    public ProductFacetFilterDTO {
+        categories = categories != null ? Set.copyOf(categories) : Set.of();
+        sizes = sizes != null ? Set.copyOf(sizes) : Set.of();
+        colors = colors != null ? Set.copyOf(colors) : Set.of();
+        prices = prices != null ? Set.copyOf(prices) : Set.of();
+    }
+}
@@ -0,0 +1,17 @@
+package com.artecomcarinho.dto;
+
+import com.artecomcarinho.model.Product.ProductCategory;
+
+/**
+ * Sugestão do autocomplete da vitrine.
+ *
+ * @param productId produto sugerido, ou {@code null} quando a sugestão é uma categoria
+ */
+public record ProductSuggestionDTO(Type type, String text, Long productId, ProductCategory category) {
+
+    public enum Type {
+        PRODUCT,
+        SKU,
+        CATEGORY
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -21,4 +22,17 @@ public class ProductionCardDTO {
     private LocalDateTime updatedAt;
     private LocalDate expectedDeliveryDate;
     private List<ProductionCardItemDTO> items;
+
+    /**
+     * Usado pela projeção do quadro: os itens são preenchidos depois, numa segunda consulta.
+     */
+    public ProductionCardDTO(Long orderId, String orderNumber, String customerName,
+                             ProductionStage stage, ProductionStatus status, String notes,
+                             LocalDateTime updatedAt, LocalDate expectedDeliveryDate) {
+        this(orderId,
+                orderNumber != null ? orderNumber : "#" + orderId,
+                customerName != null ? customerName : "Cliente",
+                stage, status, notes, updatedAt, expectedDeliveryDate,
+                new ArrayList<>());
+    }
 }
@@ -0,0 +1,26 @@
+package com.artecomcarinho.dto;
+
+import com.artecomcarinho.model.enums.ProductionStage;
+
+/**
+ * Delta enviado pelo stream do quadro de produção.
+ *
+ * @param previousStage coluna em que o card estava antes (null quando o card foi criado)
+ */
+public record ProductionCardEventDTO(Type type, ProductionStage previousStage, ProductionCardDTO card) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        MOVED
+    }
+
+    public static ProductionCardEventDTO created(ProductionCardDTO card) {
+        return new ProductionCardEventDTO(Type.CREATED, null, card);
+    }
+
+    public static ProductionCardEventDTO changed(ProductionStage previousStage, ProductionCardDTO card) {
+        Type type = previousStage != card.getStage() ? Type.MOVED : Type.UPDATED;
+        return new ProductionCardEventDTO(type, previousStage, card);
+    }
+}
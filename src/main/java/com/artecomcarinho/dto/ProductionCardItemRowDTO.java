@@ -0,0 +1,14 @@
+package com.artecomcarinho.dto;
+
+/**
+ * Linha da consulta de itens do quadro de produção, ainda com o id do pedido para agrupar.
+ */
+public record ProductionCardItemRowDTO(Long orderId, String name, Integer quantity) {
+
+    public ProductionCardItemDTO toItem() {
+        return new ProductionCardItemDTO(
+                name != null ? name : "Item",
+                quantity != null ? quantity : 1
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.artecomcarinho.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validador barato de uma listagem: quantidade de linhas e a última alteração entre elas.
+ * Se nenhum dos dois mudou, a resposta também não mudou (GET condicional com 304).
+ */
+public record ResourceVersionDTO(long count, LocalDateTime lastModified) {
+
+    public ResourceVersionDTO(Long count, LocalDateTime lastModified) {
+        this(count != null ? count : 0L, lastModified);
+    }
+
+    /**
+     * ETag fraco; {@code variant} diferencia respostas do mesmo conjunto (página, ordenação...).
+     */
+    public String eTag(String variant) {
+        long modified = lastModified != null ? lastModifiedMillis() : 0L;
+        return "W/\"" + count + "-" + modified + "-" + Integer.toHexString(variant.hashCode()) + "\"";
+    }
+
+    /**
+     * Epoch em milissegundos para o Last-Modified, ou -1 quando o conjunto está vazio.
+     */
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1L;
+    }
+}
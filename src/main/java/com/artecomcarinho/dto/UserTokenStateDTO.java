@@ -0,0 +1,7 @@
+package com.artecomcarinho.dto;
+
+/**
+ * Versão atual dos tokens de um usuário e se ele está ativo.
+ */
+public record UserTokenStateDTO(Long userId, Long tokenVersion, Boolean active) {
+}
@@ -0,0 +1,60 @@
+package com.artecomcarinho.event;
+
+import com.artecomcarinho.model.Order;
+import com.artecomcarinho.model.Order.OrderStatus;
+import com.artecomcarinho.model.OrderItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Publicado sempre que um pedido é criado ou muda de status.
+ * Carrega uma cópia dos dados de venda para que os listeners não precisem
+ * reabrir a sessão depois do commit.
+ *
+ * @param previousStatus status anterior, ou {@code null} quando o pedido acabou de ser criado
+ */
+public record OrderStatusChangedEvent(
+        Long orderId,
+        OrderStatus previousStatus,
+        OrderStatus newStatus,
+        LocalDate orderDay,
+        BigDecimal totalAmount,
+        List<Line> lines
+) {
+
+    public record Line(Long productId, int quantity, BigDecimal subtotal) {
+    }
+
+    public static OrderStatusChangedEvent of(Order order, OrderStatus previousStatus) {
+        List<Line> lines = order.getItems().stream()
+                .map(OrderStatusChangedEvent::toLine)
+                .toList();
+
+        return new OrderStatusChangedEvent(
+                order.getId(),
+                previousStatus,
+                order.getStatus(),
+                order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : null,
+                order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO,
+                lines
+        );
+    }
+
+    public boolean isCreation() {
+        return previousStatus == null;
+    }
+
+    public boolean statusChanged() {
+        return previousStatus != newStatus;
+    }
+
+    private static Line toLine(OrderItem item) {
+        return new Line(
+                item.getProduct().getId(),
+                item.getQuantity() != null ? item.getQuantity() : 0,
+                item.getSubtotal() != null ? item.getSubtotal() : BigDecimal.ZERO
+        );
+    }
+}
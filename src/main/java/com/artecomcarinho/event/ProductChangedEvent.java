@@ -0,0 +1,53 @@
+package com.artecomcarinho.event;
+
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.model.Product.ProductCategory;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Publicado quando um produto é criado, editado ou desativado.
+ * Carrega uma cópia dos campos de catálogo para que os índices em memória
+ * se atualizem depois do commit sem voltar ao banco.
+ * Mudanças só de estoque não geram evento.
+ */
+public record ProductChangedEvent(
+        Long productId,
+        String name,
+        String sku,
+        ProductCategory category,
+        boolean active,
+        BigDecimal price,
+        List<String> sizes,
+        List<String> colors,
+        boolean customizable
+) {
+
+    public ProductChangedEvent {
+        sizes = sizes != null ? sizes.stream().filter(Objects::nonNull).toList() : List.of();
+        colors = colors != null ? colors.stream().filter(Objects::nonNull).toList() : List.of();
+    }
+
+    /**
+     * Precisa da sessão aberta: lê as coleções lazy de tamanhos e cores.
+     */
+    public static ProductChangedEvent of(Product product) {
+        return of(product, product.getSizes(), product.getColors());
+    }
+
+    public static ProductChangedEvent of(Product product, List<String> sizes, List<String> colors) {
+        return new ProductChangedEvent(
+                product.getId(),
+                product.getName(),
+                product.getSku(),
+                product.getCategory(),
+                Boolean.TRUE.equals(product.getActive()),
+                product.getPrice(),
+                sizes,
+                colors,
+                Boolean.TRUE.equals(product.getCustomizable())
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package com.artecomcarinho.event;
+
+import com.artecomcarinho.model.User;
+
+/**
+ * Publicado quando senha, papel ou status de um usuário mudam, com a nova versão dos tokens,
+ * para que a revogação valha neste nó logo depois do commit.
+ */
+public record UserChangedEvent(Long userId, long tokenVersion, boolean active) {
+
+    public static UserChangedEvent of(User user) {
+        return new UserChangedEvent(user.getId(), user.getTokenVersion(), Boolean.TRUE.equals(user.getActive()));
+    }
+}
@@ -2,7 +2,8 @@ package com.artecomcarinho.exception;
 
 public class TooManyRequestsException extends RuntimeException {
 
+    // Lançada em massa quando alguém força o limite; a resposta 429 nunca usa o stack trace
     public TooManyRequestsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,26 @@
+package com.artecomcarinho.mapper;
+
+import com.artecomcarinho.dto.AddressDTO;
+import com.artecomcarinho.model.Address;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+// Sem builder: o builder do Lombok chama a propriedade de "isDefault" e os getters de "default"
+@Mapper(config = MappingConfig.class, builder = @Builder(disableBuilder = true))
+public interface AddressMapper {
+
+    AddressDTO toDTO(Address address);
+
+    /**
+     * Copia os campos digitados pelo cliente, com CEP só com dígitos e UF em maiúsculas.
+     * Dono e endereço padrão ficam com o serviço.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "default", ignore = true)
+    @Mapping(target = "zipCode", expression = "java(addressDTO.getZipCode().replaceAll(\"\\\\D\", \"\"))")
+    @Mapping(target = "state", expression = "java(addressDTO.getState().toUpperCase())")
+    void updateEntity(AddressDTO addressDTO, @MappingTarget Address address);
+}
@@ -0,0 +1,11 @@
+package com.artecomcarinho.mapper;
+
+import com.artecomcarinho.dto.CustomerSummaryDTO;
+import com.artecomcarinho.model.Customer;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface CustomerMapper {
+
+    CustomerSummaryDTO toSummary(Customer customer);
+}
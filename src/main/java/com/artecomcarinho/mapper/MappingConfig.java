@@ -0,0 +1,18 @@
+package com.artecomcarinho.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Configuração comum dos mappers: beans Spring e erro de compilação se algum campo
+ * do destino ficar sem origem, para um campo novo não sumir da resposta em silêncio.
+ */
+@MapperConfig(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.ERROR
+)
+public interface MappingConfig {
+}
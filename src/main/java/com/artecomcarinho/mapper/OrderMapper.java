@@ -0,0 +1,19 @@
+package com.artecomcarinho.mapper;
+
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.model.Order;
+import com.artecomcarinho.model.OrderItem;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface OrderMapper {
+
+    @Mapping(target = "customerId", source = "customer.id")
+    @Mapping(target = "customerName", source = "customer.name")
+    OrderDTO toDTO(Order order);
+
+    @Mapping(target = "productId", source = "product.id")
+    @Mapping(target = "productName", source = "product.name")
+    OrderDTO.OrderItemDTO toItemDTO(OrderItem item);
+}
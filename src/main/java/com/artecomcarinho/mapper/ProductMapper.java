@@ -0,0 +1,39 @@
+package com.artecomcarinho.mapper;
+
+import com.artecomcarinho.dto.ProductDTO;
+import com.artecomcarinho.model.Product;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+
+@Mapper(config = MappingConfig.class)
+public interface ProductMapper {
+
+    // As listas saem copiadas: o DTO fica no cache e não pode segurar as coleções lazy do Hibernate
+    ProductDTO toDTO(Product product);
+
+    /**
+     * Produto novo a partir do DTO; campos nulos mantêm os padrões da entidade
+     * e o id do cliente é ignorado.
+     */
+    default Product toEntity(ProductDTO productDTO) {
+        Product product = new Product();
+        fillNewEntity(productDTO, product);
+        return product;
+    }
+
+    /**
+     * Edição: copia os campos editáveis, inclusive nulos. Id, active e updatedAt não mudam por aqui.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "active", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    void updateEntity(ProductDTO productDTO, @MappingTarget Product product);
+
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    void fillNewEntity(ProductDTO productDTO, @MappingTarget Product product);
+}
@@ -0,0 +1,14 @@
+package com.artecomcarinho.mapper;
+
+import com.artecomcarinho.dto.UserDTO;
+import com.artecomcarinho.model.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface UserMapper {
+
+    // O hash da senha nunca sai na resposta
+    @Mapping(target = "password", ignore = true)
+    UserDTO toDTO(User user);
+}
@@ -0,0 +1,26 @@
+package com.artecomcarinho.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Linha única com a geração do consolidado de vendas: cada rebuild a incrementa.
+ * Um delta lido numa geração anterior já foi contado pelo rebuild e é descartado.
+ */
+@Entity
+@Table(name = "daily_sales_rollup_state")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesRollupState {
+
+    public static final long SINGLETON = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long generation;
+}
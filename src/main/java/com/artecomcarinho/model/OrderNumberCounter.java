@@ -0,0 +1,30 @@
+package com.artecomcarinho.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Contador diário dos números de pedido (PED-yyyyMMdd-NNNN).
+ * Cada nó reserva blocos de números de uma vez (hi/lo) e os distribui em memória.
+ */
+@Entity
+@Table(name = "order_number_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderNumberCounter {
+
+    @Id
+    @Column(name = "counter_date")
+    private LocalDate counterDate;
+
+    /**
+     * Último número já reservado para o dia (por algum nó).
+     */
+    @Column(name = "last_value", nullable = false)
+    private long lastValue;
+}
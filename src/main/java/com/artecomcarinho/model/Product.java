@@ -3,8 +3,12 @@ package com.artecomcarinho.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,10 +19,18 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(AuditingEntityListener.class)
 public class Product {
 
+    /**
+     * Imagens, tamanhos e cores são carregados em lotes de até tantos produtos: uma página
+     * do catálogo custa uma consulta por coleção, não uma por produto.
+     */
+    public static final int COLLECTION_BATCH_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -47,6 +59,7 @@ public class Product {
 
     //  LISTA DE IMAGENS
     @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url")
     @Builder.Default
@@ -54,6 +67,7 @@ public class Product {
 
     // LISTA DE TAMANHOS
     @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @CollectionTable(name = "product_sizes", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "size")
     @Builder.Default
@@ -61,6 +75,7 @@ public class Product {
 
     // LISTA DE CORES
     @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @CollectionTable(name = "product_colors", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "color")
     @Builder.Default
@@ -78,6 +93,10 @@ public class Product {
     @Column(nullable = false)
     private Boolean customizable = false;
 
+    // Também atualizado pelos UPDATEs de estoque; base do ETag do catálogo
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
     public enum ProductCategory {
         ROUPAS,
         ACESSORIOS,
@@ -3,6 +3,7 @@ package com.artecomcarinho.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -55,6 +56,12 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Incrementada quando senha, papel ou status mudam: tokens emitidos antes deixam de valer
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long tokenVersion = 0L;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -78,6 +85,10 @@ public class User implements UserDetails {
         }
     }
 
+    public void revokeTokens() {
+        tokenVersion = tokenVersion + 1;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -0,0 +1,113 @@
+package com.artecomcarinho.repository;
+
+import com.artecomcarinho.dto.MonthlyRevenueDTO;
+import com.artecomcarinho.dto.OrderSummaryStatsDTO;
+import com.artecomcarinho.dto.TopProductStatsDTO;
+import com.artecomcarinho.model.DailySalesRollup;
+import com.artecomcarinho.model.Order.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    @Modifying
+    @Query("""
+    UPDATE DailySalesRollup r
+    SET r.orderCount = r.orderCount + :orders,
+        r.quantity = r.quantity + :quantity,
+        r.revenue = r.revenue + :revenue
+    WHERE r.salesDate = :salesDate AND r.status = :status AND r.productId = :productId
+    """)
+    int increment(@Param("salesDate") LocalDate salesDate,
+                  @Param("status") OrderStatus status,
+                  @Param("productId") Long productId,
+                  @Param("orders") long orders,
+                  @Param("quantity") long quantity,
+                  @Param("revenue") BigDecimal revenue);
+
+    // Usados no rebuild completo (insert-select agrupado direto no banco)
+    @Modifying
+    @Query("""
+    INSERT INTO DailySalesRollup (salesDate, status, productId, orderCount, quantity, revenue)
+    SELECT CAST(o.orderDate AS LocalDate), o.status, 0L, COUNT(o), 0L,
+           COALESCE(SUM(o.totalAmount), CAST(0 AS bigdecimal))
+    FROM Order o
+    WHERE o.orderDate IS NOT NULL
+    GROUP BY CAST(o.orderDate AS LocalDate), o.status
+    """)
+    int rebuildOrderTotals();
+
+    @Modifying
+    @Query("""
+    INSERT INTO DailySalesRollup (salesDate, status, productId, orderCount, quantity, revenue)
+    SELECT CAST(o.orderDate AS LocalDate), o.status, i.product.id, 0L, COALESCE(SUM(i.quantity), 0L),
+           COALESCE(SUM(i.subtotal), CAST(0 AS bigdecimal))
+    FROM OrderItem i
+    JOIN i.order o
+    WHERE o.orderDate IS NOT NULL
+    GROUP BY CAST(o.orderDate AS LocalDate), o.status, i.product.id
+    """)
+    int rebuildProductTotals();
+
+    // Usado em OrderStatsService.getSummary (avgTicket é calculado no service)
+    @Query("""
+    SELECT new com.artecomcarinho.dto.OrderSummaryStatsDTO(
+      COALESCE(SUM(r.revenue), CAST(0 AS bigdecimal)),
+      COALESCE(SUM(r.orderCount), 0L),
+      CAST(0 AS bigdecimal)
+    )
+    FROM DailySalesRollup r
+    WHERE r.productId = 0 AND r.status = :status
+      AND r.salesDate BETWEEN :start AND :end
+    """)
+    OrderSummaryStatsDTO getSummaryStats(@Param("status") OrderStatus status,
+                                         @Param("start") LocalDate start,
+                                         @Param("end") LocalDate end);
+
+    // Usado em OrderStatsService.getRevenueByMonth
+    @Query("""
+    SELECT new com.artecomcarinho.dto.MonthlyRevenueDTO(
+      EXTRACT(MONTH FROM r.salesDate),
+      COALESCE(SUM(r.revenue), CAST(0 AS bigdecimal)),
+      COALESCE(SUM(r.orderCount), 0L)
+    )
+    FROM DailySalesRollup r
+    WHERE r.productId = 0 AND r.status = :status
+      AND r.salesDate BETWEEN :start AND :end
+    GROUP BY EXTRACT(MONTH FROM r.salesDate)
+    HAVING SUM(r.orderCount) > 0
+    ORDER BY EXTRACT(MONTH FROM r.salesDate)
+    """)
+    List<MonthlyRevenueDTO> getMonthlyRevenueStats(@Param("status") OrderStatus status,
+                                                   @Param("start") LocalDate start,
+                                                   @Param("end") LocalDate end);
+
+    // Usado em OrderStatsService.getTopProducts
+    @Query("""
+    SELECT new com.artecomcarinho.dto.TopProductStatsDTO(
+      p.name,
+      COALESCE(SUM(r.quantity), 0L),
+      COALESCE(SUM(r.revenue), CAST(0 AS bigdecimal))
+    )
+    FROM DailySalesRollup r
+    JOIN Product p ON p.id = r.productId
+    WHERE r.status = :status
+      AND r.salesDate BETWEEN :start AND :end
+    GROUP BY p.name
+    HAVING SUM(r.quantity) > 0
+    ORDER BY COALESCE(SUM(r.quantity), 0L) DESC
+    """)
+    List<TopProductStatsDTO> getTopProductStats(@Param("status") OrderStatus status,
+                                                @Param("start") LocalDate start,
+                                                @Param("end") LocalDate end,
+                                                Limit limit);
+}
@@ -0,0 +1,30 @@
+package com.artecomcarinho.repository;
+
+import com.artecomcarinho.model.DailySalesRollupState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DailySalesRollupStateRepository extends JpaRepository<DailySalesRollupState, Long> {
+
+    // Trava compartilhada (FOR SHARE no PostgreSQL) até o fim da transação: deltas não se bloqueiam, só esperam o rebuild
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select s from DailySalesRollupState s where s.id = 1")
+    Optional<DailySalesRollupState> findLocked();
+
+    // Trava exclusiva da linha até o commit do rebuild
+    @Modifying(clearAutomatically = true)
+    @Query("update DailySalesRollupState s set s.generation = s.generation + 1 where s.id = 1")
+    int advanceGeneration();
+
+    // Insert explícito: save() faria merge da chave atribuída e sobrescreveria a linha criada por outro nó
+    @Modifying
+    @Query("insert into DailySalesRollupState (id, generation) values (1, 0)")
+    int insertState();
+}
@@ -0,0 +1,27 @@
+package com.artecomcarinho.repository;
+
+import com.artecomcarinho.model.OrderNumberCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface OrderNumberCounterRepository extends JpaRepository<OrderNumberCounter, LocalDate> {
+
+    @Modifying(clearAutomatically = true)
+    @Query("update OrderNumberCounter c set c.lastValue = c.lastValue + :blockSize where c.counterDate = :date")
+    int reserveBlock(@Param("date") LocalDate date, @Param("blockSize") long blockSize);
+
+    // Insert explícito: save() faria merge da chave atribuída e sobrescreveria a linha criada por outro nó
+    @Modifying
+    @Query("insert into OrderNumberCounter (counterDate, lastValue) values (:date, :lastValue)")
+    int insertCounter(@Param("date") LocalDate date, @Param("lastValue") long lastValue);
+
+    @Query("select c.lastValue from OrderNumberCounter c where c.counterDate = :date")
+    Optional<Long> findLastValue(@Param("date") LocalDate date);
+}
@@ -4,8 +4,10 @@ import com.artecomcarinho.dto.CustomerKpiDTO;
 import com.artecomcarinho.dto.OrderStatusStatsDTO;
 import com.artecomcarinho.model.Order;
 import com.artecomcarinho.model.Order.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +16,8 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,22 +26,70 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
-    Page<Order> findByCustomerId(Long customerId, Pageable pageable);
+    // Usado por OrderNumberAllocator ao abrir o contador de um dia; pelo tamanho antes, senão ...-9999 vem antes de ...-10000
+    @Query("""
+            select o.orderNumber from Order o
+            where o.orderNumber like :pattern
+            order by length(o.orderNumber) desc, o.orderNumber desc
+            """)
+    List<String> findHighestOrderNumbersWithPrefix(@Param("pattern") String pattern, Limit limit);
+
+    // Listagens paginadas em duas fases: primeiro os ids da página (com count),
+    // depois o grafo completo via findWithItemsByIdIn. Fazer fetch de coleção
+    // direto na consulta paginada obrigaria o Hibernate a paginar em memória.
+    @Query(value = "select o.id from Order o",
+            countQuery = "select count(o) from Order o")
+    Page<Long> findPageIds(Pageable pageable);
+
+    @Query(value = "select o.id from Order o where o.customer.id = :customerId",
+            countQuery = "select count(o) from Order o where o.customer.id = :customerId")
+    Page<Long> findPageIdsByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Query(value = "select o.id from Order o where o.status = :status",
+            countQuery = "select count(o) from Order o where o.status = :status")
+    Page<Long> findPageIdsByStatus(@Param("status") OrderStatus status, Pageable pageable);
+
+    // Paginação por keyset em (orderDate desc, id desc): sem OFFSET e sem count
+    @Query("""
+    select o.id from Order o
+    where o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id)
+    order by o.orderDate desc, o.id desc
+    """)
+    List<Long> findKeysetIds(@Param("orderDate") LocalDateTime orderDate,
+                             @Param("id") Long id,
+                             Limit limit);
+
+    @Query("""
+    select o.id from Order o
+    where o.status = :status
+      and (o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id))
+    order by o.orderDate desc, o.id desc
+    """)
+    List<Long> findKeysetIdsByStatus(@Param("status") OrderStatus status,
+                                     @Param("orderDate") LocalDateTime orderDate,
+                                     @Param("id") Long id,
+                                     Limit limit);
 
-    Page<Order> findByStatus(OrderStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = {"customer", "items", "items.product"})
+    @Query("select o from Order o where o.id in :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 
     // Usado em getOrdersByDateRange
-    List<Order> findByOrderDateBetween(LocalDate startDate, LocalDate endDate);
+    @EntityGraph(attributePaths = {"customer", "items", "items.product"})
+    @Query("select o from Order o where o.orderDate >= :start and o.orderDate < :end")
+    List<Order> findWithItemsByOrderDateRange(@Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end);
 
     // Usado em getUpcomingDeliveries
+    @EntityGraph(attributePaths = {"customer", "items", "items.product"})
     @Query("select o from Order o where o.expectedDeliveryDate between :startDate and :endDate")
     List<Order> findUpcomingDeliveries(@Param("startDate") LocalDate startDate,
                                        @Param("endDate") LocalDate endDate);
 
-    // Usado em getTotalRevenue
-    @Query("select coalesce(sum(o.totalAmount), 0) " +
-            "from Order o " +
-            "where o.orderDate between :startDate and :endDate")
+    // Usado em getTotalRevenue (lido do consolidado diário, todos os status)
+    @Query("select coalesce(sum(r.revenue), 0) " +
+            "from DailySalesRollup r " +
+            "where r.productId = 0 and r.salesDate between :startDate and :endDate")
     BigDecimal getTotalRevenueBetweenDates(@Param("startDate") LocalDate startDate,
                                            @Param("endDate") LocalDate endDate);
 
@@ -56,8 +108,4 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     GROUP BY o.customer.id
     """)
     List<CustomerKpiDTO> getCustomerKpis();
-
-
-
-
 }
@@ -1,22 +1,49 @@
 package com.artecomcarinho.repository;
 
+import com.artecomcarinho.dto.ProductAttributeRowDTO;
+import com.artecomcarinho.dto.ResourceVersionDTO;
 import com.artecomcarinho.model.Product;
 import com.artecomcarinho.model.Product.ProductCategory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockRepository {
 
     Page<Product> findByActiveTrue(Pageable pageable);
 
+    List<Product> findAllByActiveTrue();
+
+    // Tamanhos e cores de todos os produtos ativos, para montar os índices em memória sem N+1
+    @Query("SELECT new com.artecomcarinho.dto.ProductAttributeRowDTO(p.id, s) FROM Product p JOIN p.sizes s WHERE p.active = true")
+    List<ProductAttributeRowDTO> findActiveSizes();
+
+    @Query("SELECT new com.artecomcarinho.dto.ProductAttributeRowDTO(p.id, c) FROM Product p JOIN p.colors c WHERE p.active = true")
+    List<ProductAttributeRowDTO> findActiveColors();
+
+    // Produtos alterados (ativos ou não) e seus tamanhos e cores, para ressincronizar os índices
+    List<Product> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    @Query("SELECT new com.artecomcarinho.dto.ProductAttributeRowDTO(p.id, s) FROM Product p JOIN p.sizes s WHERE p.id IN :ids")
+    List<ProductAttributeRowDTO> findSizesByProductIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.artecomcarinho.dto.ProductAttributeRowDTO(p.id, c) FROM Product p JOIN p.colors c WHERE p.id IN :ids")
+    List<ProductAttributeRowDTO> findColorsByProductIds(@Param("ids") Collection<Long> ids);
+
+    // Paginação por keyset em id: sem OFFSET e sem count
+    List<Product> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Page<Product> findByCategoryAndActiveTrue(ProductCategory category, Pageable pageable);
 
     List<Product> findByFeaturedTrueAndActiveTrue();
@@ -29,6 +56,47 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             "p.active = true")
     Page<Product> searchProducts(@Param("search") String search, Pageable pageable);
 
+    // Busca textual (PostgreSQL): usa o índice GIN em search_vector e ordena por relevância
+    @Query(value = """
+    SELECT p.* FROM products p
+    WHERE p.active = true AND p.search_vector @@ to_tsquery('pt_unaccent', :tsQuery)
+    ORDER BY ts_rank(p.search_vector, to_tsquery('pt_unaccent', :tsQuery)) DESC, p.id
+    """,
+            countQuery = """
+    SELECT COUNT(*) FROM products p
+    WHERE p.active = true AND p.search_vector @@ to_tsquery('pt_unaccent', :tsQuery)
+    """,
+            nativeQuery = true)
+    Page<Product> fullTextSearch(@Param("tsQuery") String tsQuery, Pageable pageable);
+
     @Query("SELECT p FROM Product p WHERE p.stock <= :threshold AND p.active = true")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
+
+    // Baixa atômica: retorna 0 se o produto não existe ou não tem estoque suficiente
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.updatedAt = :now WHERE p.id = :id AND p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.updatedAt = :now WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Validadores do GET condicional: mudam sempre que algum produto do conjunto muda
+    @Query("SELECT new com.artecomcarinho.dto.ResourceVersionDTO(COUNT(p), MAX(p.updatedAt)) FROM Product p WHERE p.active = true")
+    ResourceVersionDTO getActiveVersion();
+
+    @Query("""
+    SELECT new com.artecomcarinho.dto.ResourceVersionDTO(COUNT(p), MAX(p.updatedAt))
+    FROM Product p WHERE p.active = true AND p.category = :category
+    """)
+    ResourceVersionDTO getCategoryVersion(@Param("category") ProductCategory category);
+
+    @Query("""
+    SELECT new com.artecomcarinho.dto.ResourceVersionDTO(COUNT(p), MAX(p.updatedAt))
+    FROM Product p WHERE p.active = true AND p.featured = true
+    """)
+    ResourceVersionDTO getFeaturedVersion();
+
+    @Query("SELECT new com.artecomcarinho.dto.ResourceVersionDTO(COUNT(p), MAX(p.updatedAt)) FROM Product p WHERE p.id = :id")
+    ResourceVersionDTO getProductVersion(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.artecomcarinho.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Fragmento do {@link ProductRepository} com as baixas de estoque em lote JDBC.
+ */
+public interface ProductStockRepository {
+
+    // Um UPDATE condicional por produto, na ordem do mapa, num único lote; cada posição do retorno é 0 se faltou estoque
+    int[] decrementStocks(Map<Long, Integer> quantities, LocalDateTime now);
+}
@@ -0,0 +1,29 @@
+package com.artecomcarinho.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * O Hibernate não agrupa UPDATEs em JPQL: cada um vai sozinho ao banco. Pelo JdbcTemplate, a
+ * baixa de todos os produtos do pedido sai num único lote, e a conexão é a mesma da transação JPA.
+ */
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String DECREMENT_STOCK =
+            "UPDATE products SET stock = stock - ?, updated_at = ? WHERE id = ? AND stock >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] decrementStocks(Map<Long, Integer> quantities, LocalDateTime now) {
+        List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> batchArgs.add(new Object[]{quantity, now, productId, quantity}));
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK, batchArgs);
+    }
+}
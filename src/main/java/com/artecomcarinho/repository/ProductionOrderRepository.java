@@ -1,12 +1,116 @@
 package com.artecomcarinho.repository;
 
+import com.artecomcarinho.dto.ProductionCardDTO;
+import com.artecomcarinho.dto.ProductionCardItemRowDTO;
+import com.artecomcarinho.dto.ResourceVersionDTO;
 import com.artecomcarinho.model.ProductionOrder;
 import com.artecomcarinho.model.enums.ProductionStage;
+import com.artecomcarinho.model.enums.ProductionStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductionOrderRepository extends JpaRepository<ProductionOrder, Long> {
-    List<ProductionOrder> findByStageOrderByUpdatedAtDesc(ProductionStage stage);
 
+    // Projeções do quadro: só as colunas do card, sem carregar pedido/cliente/itens como entidades
+    @Query("""
+    SELECT new com.artecomcarinho.dto.ProductionCardDTO(
+        p.orderId, o.orderNumber, c.name, p.stage, p.status, p.notes, p.updatedAt, o.expectedDeliveryDate)
+    FROM ProductionOrder p
+    JOIN p.order o
+    LEFT JOIN o.customer c
+    WHERE p.stage <> :excluded
+    ORDER BY p.updatedAt DESC, p.orderId DESC
+    """)
+    List<ProductionCardDTO> findCardsExcludingStage(@Param("excluded") ProductionStage excluded);
+
+    @Query("""
+    SELECT new com.artecomcarinho.dto.ProductionCardDTO(
+        p.orderId, o.orderNumber, c.name, p.stage, p.status, p.notes, p.updatedAt, o.expectedDeliveryDate)
+    FROM ProductionOrder p
+    JOIN p.order o
+    LEFT JOIN o.customer c
+    WHERE p.stage = :stage
+    ORDER BY p.updatedAt DESC, p.orderId DESC
+    """)
+    List<ProductionCardDTO> findCardsByStage(@Param("stage") ProductionStage stage, Limit limit);
+
+    @Query(value = """
+    SELECT new com.artecomcarinho.dto.ProductionCardDTO(
+        p.orderId, o.orderNumber, c.name, p.stage, p.status, p.notes, p.updatedAt, o.expectedDeliveryDate)
+    FROM ProductionOrder p
+    JOIN p.order o
+    LEFT JOIN o.customer c
+    WHERE p.stage = :stage
+    ORDER BY p.updatedAt DESC, p.orderId DESC
+    """,
+            countQuery = "SELECT COUNT(p) FROM ProductionOrder p WHERE p.stage = :stage")
+    Page<ProductionCardDTO> findCardPageByStage(@Param("stage") ProductionStage stage, Pageable pageable);
+
+    @Query("""
+    SELECT new com.artecomcarinho.dto.ProductionCardDTO(
+        p.orderId, o.orderNumber, c.name, p.stage, p.status, p.notes, p.updatedAt, o.expectedDeliveryDate)
+    FROM ProductionOrder p
+    JOIN p.order o
+    LEFT JOIN o.customer c
+    WHERE p.orderId IN :orderIds
+    ORDER BY p.updatedAt DESC, p.orderId DESC
+    """)
+    List<ProductionCardDTO> findCardsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT new com.artecomcarinho.dto.ResourceVersionDTO(COUNT(p), MAX(p.updatedAt)) FROM ProductionOrder p")
+    ResourceVersionDTO getBoardVersion();
+
+    @Query("""
+    SELECT new com.artecomcarinho.dto.ProductionCardItemRowDTO(i.order.id, pr.name, i.quantity)
+    FROM OrderItem i
+    LEFT JOIN i.product pr
+    WHERE i.order.id IN :orderIds
+    ORDER BY i.id
+    """)
+    List<ProductionCardItemRowDTO> findCardItems(@Param("orderIds") Collection<Long> orderIds);
+
+    // Parâmetro nulo mantém o valor atual da coluna
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+    UPDATE ProductionOrder p
+    SET p.stage = COALESCE(:stage, p.stage),
+        p.status = COALESCE(:status, p.status),
+        p.updatedAt = :now
+    WHERE p.orderId IN :orderIds
+    """)
+    int bulkUpdate(@Param("orderIds") Collection<Long> orderIds,
+                   @Param("stage") ProductionStage stage,
+                   @Param("status") ProductionStatus status,
+                   @Param("now") LocalDateTime now);
+
+    // Cria o card padrão do pedido; não faz nada se ele já existir
+    @Modifying
+    @Query(value = """
+    INSERT INTO production_orders (order_id, stage, status, updated_at)
+    SELECT o.id, 'BORDADO', 'PENDING', :now
+    FROM orders o
+    WHERE o.id = :orderId
+      AND NOT EXISTS (SELECT 1 FROM production_orders p WHERE p.order_id = o.id)
+    """, nativeQuery = true)
+    int insertDefaultIfMissing(@Param("orderId") Long orderId, @Param("now") LocalDateTime now);
+
+    // Backfill: um único insert-select (anti-join) para todos os pedidos ainda sem card
+    @Modifying
+    @Query(value = """
+    INSERT INTO production_orders (order_id, stage, status, updated_at)
+    SELECT o.id, 'BORDADO', 'PENDING', :now
+    FROM orders o
+    LEFT JOIN production_orders p ON p.order_id = o.id
+    WHERE p.order_id IS NULL
+    """, nativeQuery = true)
+    int insertMissingDefaults(@Param("now") LocalDateTime now);
 }
@@ -1,9 +1,14 @@
 package com.artecomcarinho.repository;
 
+import com.artecomcarinho.dto.UserTokenStateDTO;
 import com.artecomcarinho.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmailIgnoreCase(String email);
 
     Boolean existsByEmailIgnoreCase(String email);
+
+    @Query("SELECT new com.artecomcarinho.dto.UserTokenStateDTO(u.id, u.tokenVersion, u.active) FROM User u")
+    List<UserTokenStateDTO> findTokenStates();
+
+    @Query("SELECT new com.artecomcarinho.dto.UserTokenStateDTO(u.id, u.tokenVersion, u.active) FROM User u " +
+            "WHERE u.updatedAt >= :since")
+    List<UserTokenStateDTO> findTokenStatesUpdatedSince(@Param("since") LocalDateTime since);
 }
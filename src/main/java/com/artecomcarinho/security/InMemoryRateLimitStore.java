@@ -0,0 +1,88 @@
+package com.artecomcarinho.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Store do rate limit na memória deste nó: um {@link AtomicLong} por chave, atualizado por CAS,
+ * sem locks. Serve para um nó só; com vários, use o {@link JdbcRateLimitStore}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    // Marca uma chave removida pela limpeza; quem a encontrar busca ou cria outra
+    private static final long RETIRED = Long.MIN_VALUE;
+    private static final long CLEANUP_INTERVAL_NANOS = Duration.ofMinutes(5).toNanos();
+
+    private final Map<String, Map<String, AtomicLong>> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final AtomicLong lastCleanup;
+
+    public InMemoryRateLimitStore() {
+        this(System::nanoTime);
+    }
+
+    InMemoryRateLimitStore(LongSupplier clock) {
+        this.clock = clock;
+        this.lastCleanup = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    public boolean tryAcquire(String bucketName, String key, int permits, long intervalNanos, long windowNanos) {
+        long now = clock.getAsLong();
+        long cost = permits * intervalNanos;
+        Map<String, AtomicLong> bucket = bucket(bucketName);
+
+        while (true) {
+            AtomicLong tat = bucket.get(key);
+            if (tat == null) {
+                tat = bucket.computeIfAbsent(key, ignored -> new AtomicLong(now));
+            }
+
+            long current = tat.get();
+            if (current == RETIRED) {
+                bucket.remove(key, tat);
+                continue;
+            }
+
+            long next = Math.max(current, now) + cost;
+            if (next - now > windowNanos) {
+                return false;
+            }
+            if (tat.compareAndSet(current, next)) {
+                break;
+            }
+        }
+
+        cleanupIdleKeys(now);
+        return true;
+    }
+
+    private Map<String, AtomicLong> bucket(String bucketName) {
+        Map<String, AtomicLong> bucket = buckets.get(bucketName);
+        return bucket != null ? bucket : buckets.computeIfAbsent(bucketName, ignored -> new ConcurrentHashMap<>());
+    }
+
+    // Chave cujo TAT já passou equivale a chave nova; aposenta antes de remover para não perder um CAS
+    private void cleanupIdleKeys(long now) {
+        long previousCleanup = lastCleanup.get();
+        if (now - previousCleanup < CLEANUP_INTERVAL_NANOS
+                || !lastCleanup.compareAndSet(previousCleanup, now)) {
+            return;
+        }
+
+        buckets.values().forEach(bucket -> bucket.forEach((key, tat) -> {
+            long current = tat.get();
+            if (current != RETIRED && current - now <= 0 && tat.compareAndSet(current, RETIRED)) {
+                bucket.remove(key, tat);
+            }
+        }));
+    }
+}
@@ -0,0 +1,104 @@
+package com.artecomcarinho.security;
+
+import com.artecomcarinho.config.DatabasePlatform;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store do rate limit numa tabela do PostgreSQL, compartilhada por todos os nós.
+ * <p>
+ * Cada tentativa (ou lote, ver {@link RateLimitService}) é um único upsert atômico que só
+ * avança o TAT se couber na janela; o relógio é o do banco, então diferenças de relógio entre
+ * nós não contam. Se o banco falhar, o limite passa a valer por nó até ele voltar.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.security.rate-limit.store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final String NOW_MICROS = "(EXTRACT(EPOCH FROM statement_timestamp()) * 1000000)::bigint";
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+                bucket_name VARCHAR(100) NOT NULL,
+                bucket_key TEXT NOT NULL,
+                tat_micros BIGINT NOT NULL,
+                PRIMARY KEY (bucket_name, bucket_key)
+            )
+            """;
+
+    // Parâmetros: bucket, chave, custo, custo, custo, janela
+    private static final String ACQUIRE = """
+            INSERT INTO rate_limit_buckets AS b (bucket_name, bucket_key, tat_micros)
+            VALUES (?, ?, %1$s + ?)
+            ON CONFLICT (bucket_name, bucket_key) DO UPDATE
+                SET tat_micros = GREATEST(b.tat_micros, %1$s) + ?
+                WHERE GREATEST(b.tat_micros, %1$s) + ? - %1$s <= ?
+            """.formatted(NOW_MICROS);
+
+    private static final String DELETE_IDLE = "DELETE FROM rate_limit_buckets WHERE tat_micros < " + NOW_MICROS;
+
+    private static final long FAILURE_LOG_INTERVAL_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryRateLimitStore fallback = new InMemoryRateLimitStore();
+    private final AtomicLong lastFailureLog = new AtomicLong(System.nanoTime() - FAILURE_LOG_INTERVAL_NANOS);
+
+    public JdbcRateLimitStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void createTable() {
+        if (!DatabasePlatform.isPostgres(jdbcTemplate.getDataSource(), "o rate limit")) {
+            throw new IllegalStateException("app.security.rate-limit.store=jdbc exige PostgreSQL");
+        }
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public boolean tryAcquire(String bucketName, String key, int permits, long intervalNanos, long windowNanos) {
+        long cost = TimeUnit.NANOSECONDS.toMicros(permits * intervalNanos);
+        try {
+            return jdbcTemplate.update(ACQUIRE, bucketName, key, cost, cost, cost,
+                    TimeUnit.NANOSECONDS.toMicros(windowNanos)) > 0;
+        } catch (DataAccessException e) {
+            logFailure(e);
+            return fallback.tryAcquire(bucketName, key, permits, intervalNanos, windowNanos);
+        }
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    // Chave cujo TAT já passou equivale a chave nova
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.cleanup-ms:300000}")
+    public void deleteIdleKeys() {
+        try {
+            int deleted = jdbcTemplate.update(DELETE_IDLE);
+            log.debug("Rate limit: {} chaves ociosas removidas", deleted);
+        } catch (DataAccessException e) {
+            logFailure(e);
+        }
+    }
+
+    private void logFailure(DataAccessException e) {
+        long now = System.nanoTime();
+        long previous = lastFailureLog.get();
+        if (now - previous >= FAILURE_LOG_INTERVAL_NANOS && lastFailureLog.compareAndSet(previous, now)) {
+            log.warn("Rate limit compartilhado indisponivel; limitando por no ate o banco voltar", e);
+        }
+    }
+}
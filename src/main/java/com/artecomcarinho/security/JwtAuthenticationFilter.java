@@ -1,12 +1,11 @@
 package com.artecomcarinho.security;
 
 import com.artecomcarinho.model.User;
-import com.artecomcarinho.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,12 +14,28 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Autentica o Bearer token. No modo sem estado ({@code app.security.jwt.stateless.enabled}) o
+ * principal sai das claims e só a versão do token é conferida, em memória; tokens antigos, sem
+ * id e papel, e o modo padrão usam o {@link PrincipalCache}.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final boolean stateless;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   PrincipalCache principalCache,
+                                   TokenVersionRegistry tokenVersionRegistry,
+                                   @Value("${app.security.jwt.stateless.enabled:false}") boolean stateless) {
+        this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.stateless = stateless;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,21 +51,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username;
+        JwtPrincipal claims;
 
         try {
-            username = jwtUtil.extractUsername(token);
+            claims = jwtUtil.parseAccessToken(token);
         } catch (Exception e) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByEmailIgnoreCase(username).orElse(null);
-
-            if (user != null && jwtUtil.validateToken(token, user)) {
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authentication = authenticate(claims);
+            if (authentication != null) {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
@@ -58,4 +70,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UsernamePasswordAuthenticationToken authenticate(JwtPrincipal claims) {
+        if (stateless && claims.isSelfContained()) {
+            if (!tokenVersionRegistry.isCurrent(claims)) {
+                return null;
+            }
+            return new UsernamePasswordAuthenticationToken(claims, null, claims.getAuthorities());
+        }
+
+        User user = principalCache.resolve(claims.email(), claims.userId(), claims.tokenVersion());
+        if (user == null) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
 }
@@ -0,0 +1,29 @@
+package com.artecomcarinho.security;
+
+import com.artecomcarinho.model.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Claims de um token de acesso já verificado. No modo sem estado é o próprio principal da
+ * requisição; {@code userId} e {@code role} são nulos em tokens emitidos antes de existirem.
+ */
+public record JwtPrincipal(String email, Long userId, User.Role role, long tokenVersion)
+        implements AuthenticatedPrincipal {
+
+    public boolean isSelfContained() {
+        return userId != null && role != null;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,8 +1,9 @@
 package com.artecomcarinho.security;
 
-import com.artecomcarinho.dto.UserDTO;
 import com.artecomcarinho.exception.UnauthorizedException;
+import com.artecomcarinho.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -23,6 +24,9 @@ public class JwtUtil {
 
     private static final String ACCESS_PURPOSE = "access";
     private static final String PASSWORD_RESET_PURPOSE = "password_reset";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
 
     @Value("${jwt.secret}")
     private String secret;
@@ -33,6 +37,10 @@ public class JwtUtil {
     @Value("${jwt.password-reset-expiration:3600000}")
     private Long passwordResetExpiration;
 
+    // Derivados do segredo uma vez só; o parser é imutável e pode ser usado por várias threads
+    private Key signingKey;
+    private JwtParser parser;
+
     @PostConstruct
     void validateConfiguration() {
         if (secret == null || secret.isBlank()) {
@@ -42,10 +50,11 @@ public class JwtUtil {
         if (secret.getBytes(StandardCharsets.UTF_8).length < 32) {
             throw new IllegalStateException("A configuracao jwt.secret deve ter pelo menos 32 bytes");
         }
-    }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String extractUsername(String token) {
@@ -62,17 +71,16 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("purpose", ACCESS_PURPOSE);
-        return createToken(claims, userDetails.getUsername());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        return createToken(claims, user.getUsername());
     }
 
     public String generatePasswordResetToken(UserDetails userDetails) {
@@ -81,12 +89,6 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername(), passwordResetExpiration);
     }
 
-    public String generateToken(UserDTO userDTO) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("purpose", ACCESS_PURPOSE);
-        return createToken(claims, userDTO.getEmail());
-    }
-
     private String createToken(Map<String, Object> claims, String subject) {
         return createToken(claims, subject, expiration);
     }
@@ -97,7 +99,7 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + tokenExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -112,17 +114,36 @@ public class JwtUtil {
         return claims.getSubject();
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
+    /**
+     * Verifica assinatura, validade e finalidade do token de acesso com um único parse.
+     * Tokens emitidos antes da versão existir valem como versão 0.
+     */
+    public JwtPrincipal parseAccessToken(String token) {
         Claims claims = extractAllClaims(token);
         validateTokenPurpose(claims, ACCESS_PURPOSE);
 
-        String username = claims.getSubject();
-        Date tokenExpiration = claims.getExpiration();
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new UnauthorizedException("Token invalido");
+        }
+
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Number version = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                userId == null ? null : userId.longValue(),
+                parseRole(claims.get(ROLE_CLAIM, String.class)),
+                version == null ? 0L : version.longValue());
+    }
 
-        return username != null
-                && username.equalsIgnoreCase(userDetails.getUsername())
-                && tokenExpiration != null
-                && !tokenExpiration.before(new Date());
+    private static User.Role parseRole(String role) {
+        if (role == null) {
+            return null;
+        }
+        try {
+            return User.Role.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     private void validateTokenPurpose(Claims claims, String expectedPurpose) {
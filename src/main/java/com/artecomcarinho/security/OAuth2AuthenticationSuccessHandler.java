@@ -1,6 +1,5 @@
 package com.artecomcarinho.security;
 
-import com.artecomcarinho.dto.UserDTO;
 import com.artecomcarinho.model.User;
 import com.artecomcarinho.model.User.Role;
 import com.artecomcarinho.repository.UserRepository;
@@ -83,8 +82,7 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
                         return userRepository.save(newUser);
                     });
 
-            UserDTO userDTO = new UserDTO(user);
-            String token = jwtUtil.generateToken(userDTO);
+            String token = jwtUtil.generateToken(user);
 
             return UriComponentsBuilder.fromUriString(baseUrl + "/auth/social-callback")
                     .fragment("token=" + token)
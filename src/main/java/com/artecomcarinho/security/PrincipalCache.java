@@ -0,0 +1,61 @@
+package com.artecomcarinho.security;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.model.User;
+import com.artecomcarinho.repository.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Usuários já autenticados pelo JWT, por e-mail e versão do token, para que cada requisição
+ * não precise buscar o usuário no banco.
+ * <p>
+ * Só entram usuários ativos cuja versão de token ainda é a do token apresentado. Quem altera
+ * senha, papel ou status chama {@link #evict(User)} antes da alteração; como o cache é
+ * transacional, a remoção acontece depois do commit.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache cache;
+    private final UserRepository userRepository;
+
+    public PrincipalCache(CacheManager cacheManager, UserRepository userRepository) {
+        this.cache = cacheManager.getCache(CacheConfig.PRINCIPALS);
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Usuário dono do token ou {@code null} se ele não existe, está inativo ou o token foi revogado.
+     * Quando o token traz o id ({@code userId}), o e-mail precisa ainda ser do mesmo usuário: um
+     * e-mail liberado e cadastrado de novo por outra pessoa não herda os tokens do dono anterior.
+     */
+    public User resolve(String email, Long userId, long tokenVersion) {
+        Key key = new Key(email.toLowerCase(Locale.ROOT), tokenVersion);
+        User user = cache.get(key, User.class);
+        if (user == null) {
+            user = userRepository.findByEmailIgnoreCase(key.email())
+                    .filter(found -> Boolean.TRUE.equals(found.getActive()))
+                    .filter(found -> found.getTokenVersion() == tokenVersion)
+                    .orElse(null);
+            if (user != null) {
+                cache.put(key, user);
+            }
+        }
+        if (user != null && userId != null && !userId.equals(user.getId())) {
+            return null;
+        }
+        return user;
+    }
+
+    // Chamar com o e-mail e a versão atuais, antes de alterá-los
+    public void evict(User user) {
+        cache.evict(new Key(user.getEmail().toLowerCase(Locale.ROOT), user.getTokenVersion()));
+    }
+
+    private record Key(String email, long tokenVersion) {
+    }
+}
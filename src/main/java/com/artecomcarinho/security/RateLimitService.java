@@ -2,22 +2,46 @@ package com.artecomcarinho.security;
 
 import com.artecomcarinho.exception.TooManyRequestsException;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limit por GCRA: no máximo {@code maxAttempts} tentativas em qualquer intervalo de
+ * {@code window}, como no log de timestamps que ele substituiu. Cada tentativa custa uma janela
+ * inteira e o TAT pode ficar até {@code maxAttempts} janelas à frente: as tentativas podem vir
+ * de uma vez, e depois de gastas volta uma por janela (todas de novo após {@code maxAttempts}
+ * janelas sem tentativas). Custo menor por tentativa deixaria passar até {@code 2 * maxAttempts - 1}
+ * numa janela. Tentativas recusadas não consomem nada.
+ * O estado fica no {@link RateLimitStore} configurado em {@code app.security.rate-limit.store}.
+ * <p>
+ * Com store compartilhado, chaves longe do limite reservam um lote de tentativas por ida ao
+ * store e gastam o lote aqui; perto do limite o lote não cabe e cada tentativa vai ao store.
+ * Um lote vale por {@code window / maxAttempts} por tentativa, então no pior caso uma chave
+ * passa do limite em um lote ({@code maxAttempts / BATCH_DIVISOR}).
+ */
 @Service
+@RequiredArgsConstructor
 public class RateLimitService {
 
-    private final Map<String, AttemptBucket> buckets = new ConcurrentHashMap<>();
-    private final AtomicLong lastCleanup = new AtomicLong(0);
+    // Limites com menos de 2 * BATCH_DIVISOR tentativas não usam lote
+    private static final int BATCH_DIVISOR = 10;
+    private static final long CLEANUP_INTERVAL_NANOS = Duration.ofMinutes(5).toNanos();
+
+    private final RateLimitStore store;
+
+    private final Map<String, Map<String, LocalBatch>> localBatches = new ConcurrentHashMap<>();
+    private final AtomicLong lastCleanup = new AtomicLong(System.nanoTime());
+
+    private LongSupplier clock = System::nanoTime;
 
     @Value("${app.security.rate-limit.enabled:true}")
     private boolean enabled;
@@ -29,20 +53,9 @@ public class RateLimitService {
         if (!enabled) {
             return;
         }
-
-        long now = System.currentTimeMillis();
-        String bucketKey = normalize(bucketName) + ":" + normalize(key);
-        AttemptBucket bucket = buckets.computeIfAbsent(bucketKey, ignored -> new AttemptBucket());
-
-        synchronized (bucket) {
-            prune(bucket.attempts, now, window);
-            if (bucket.attempts.size() >= maxAttempts) {
-                throw new TooManyRequestsException("Muitas tentativas. Aguarde um pouco e tente novamente.");
-            }
-            bucket.attempts.addLast(now);
+        if (maxAttempts <= 0 || !acquire(normalize(bucketName), normalize(key), maxAttempts, window.toNanos())) {
+            throw new TooManyRequestsException("Muitas tentativas. Aguarde um pouco e tente novamente.");
         }
-
-        cleanupOldBuckets(now, window);
     }
 
     public String key(HttpServletRequest request, String discriminator) {
@@ -74,29 +87,43 @@ public class RateLimitService {
         return remoteAddr == null || remoteAddr.isBlank() ? "unknown" : remoteAddr;
     }
 
-    private void cleanupOldBuckets(long now, Duration window) {
-        long previousCleanup = lastCleanup.get();
-        if (now - previousCleanup < Duration.ofMinutes(5).toMillis()
-                || !lastCleanup.compareAndSet(previousCleanup, now)) {
-            return;
+    private boolean acquire(String bucketName, String key, int maxAttempts, long windowNanos) {
+        long tolerance = windowNanos * maxAttempts;
+        int batchSize = store.isShared() ? maxAttempts / BATCH_DIVISOR : 1;
+        if (batchSize <= 1) {
+            return store.tryAcquire(bucketName, key, 1, windowNanos, tolerance);
         }
 
-        buckets.entrySet().removeIf(entry -> {
-            AttemptBucket bucket = entry.getValue();
-            synchronized (bucket) {
-                prune(bucket.attempts, now, window);
-                return bucket.attempts.isEmpty();
-            }
-        });
+        long now = clock.getAsLong();
+        Map<String, LocalBatch> batches = localBatches(bucketName);
+        LocalBatch batch = batches.get(key);
+        if (batch != null && batch.tryTake(now)) {
+            return true;
+        }
+
+        if (store.tryAcquire(bucketName, key, batchSize, windowNanos, tolerance)) {
+            batches.put(key, new LocalBatch(batchSize - 1, now + batchSize * (windowNanos / maxAttempts)));
+            cleanupExpiredBatches(now);
+            return true;
+        }
+        return store.tryAcquire(bucketName, key, 1, windowNanos, tolerance);
+    }
+
+    private Map<String, LocalBatch> localBatches(String bucketName) {
+        Map<String, LocalBatch> batches = localBatches.get(bucketName);
+        return batches != null ? batches : localBatches.computeIfAbsent(bucketName, ignored -> new ConcurrentHashMap<>());
     }
 
-    private void prune(Deque<Long> attempts, long now, Duration window) {
-        long earliestAllowed = now - window.toMillis();
-        while (!attempts.isEmpty() && attempts.peekFirst() < earliestAllowed) {
-            attempts.removeFirst();
+    private void cleanupExpiredBatches(long now) {
+        long previousCleanup = lastCleanup.get();
+        if (now - previousCleanup < CLEANUP_INTERVAL_NANOS
+                || !lastCleanup.compareAndSet(previousCleanup, now)) {
+            return;
         }
+        localBatches.values().forEach(batches -> batches.values().removeIf(batch -> batch.isExpired(now)));
     }
 
+    // trim e toLowerCase devolvem a mesma String quando não há o que mudar: chave já normalizada não aloca
     private String normalize(String value) {
         if (value == null || value.isBlank()) {
             return "unknown";
@@ -104,7 +131,22 @@ public class RateLimitService {
         return value.trim().toLowerCase(Locale.ROOT);
     }
 
-    private static class AttemptBucket {
-        private final Deque<Long> attempts = new ArrayDeque<>();
+    // Tentativas já reservadas no store compartilhado, gastas sem ir a ele até expirarem
+    private static final class LocalBatch {
+        private final AtomicInteger remaining;
+        private final long expiresAt;
+
+        private LocalBatch(int remaining, long expiresAt) {
+            this.remaining = new AtomicInteger(remaining);
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean tryTake(long now) {
+            return !isExpired(now) && remaining.getAndDecrement() > 0;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
     }
 }
@@ -0,0 +1,22 @@
+package com.artecomcarinho.security;
+
+/**
+ * Onde o {@link RateLimitService} guarda o estado de cada chave: o GCRA só precisa do
+ * "horário teórico de chegada" (TAT) da próxima tentativa. Com vários nós atrás do
+ * balanceador o store tem que ser compartilhado, senão cada limite vale N vezes.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Reserva {@code permits} tentativas de uma vez, só se todas couberem: cada uma avança o TAT
+     * em {@code intervalNanos} e o TAT nunca pode passar de {@code windowNanos} à frente do relógio.
+     */
+    boolean tryAcquire(String bucketName, String key, int permits, long intervalNanos, long windowNanos);
+
+    /**
+     * Stores remotos recebem as tentativas em lotes, pelo cache local do {@link RateLimitService}.
+     */
+    default boolean isShared() {
+        return false;
+    }
+}
@@ -0,0 +1,105 @@
+package com.artecomcarinho.security;
+
+import com.artecomcarinho.dto.UserTokenStateDTO;
+import com.artecomcarinho.event.UserChangedEvent;
+import com.artecomcarinho.model.User;
+import com.artecomcarinho.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versão atual dos tokens de cada usuário, para o modo sem estado do JWT.
+ * <p>
+ * Carregada quando a aplicação sobe; depois recebe os {@link UserChangedEvent} deste nó e,
+ * a cada {@code refresh-ms}, os usuários alterados em outros nós. Um token só vale se a versão
+ * dele for a atual e o usuário estiver ativo, então logout forçado e desativação valem em
+ * segundos sem consulta ao banco por requisição.
+ */
+@Slf4j
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final boolean enabled;
+    private final Duration refreshOverlap;
+    private final Map<Long, UserTokenStateDTO> states = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastRefresh;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                PrincipalCache principalCache,
+                                @Value("${app.security.jwt.stateless.enabled:false}") boolean enabled,
+                                @Value("${app.sync.refresh-overlap:1m}") Duration refreshOverlap) {
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.enabled = enabled;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<UserTokenStateDTO> loaded = userRepository.findTokenStates();
+        loaded.forEach(this::apply);
+        lastRefresh = startedAt;
+        log.info("Versoes de token carregadas para {} usuarios", loaded.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwt.stateless.refresh-ms:5000}")
+    public void refresh() {
+        if (!enabled || lastRefresh == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        userRepository.findTokenStatesUpdatedSince(lastRefresh.minus(refreshOverlap)).forEach(this::apply);
+        lastRefresh = startedAt;
+    }
+
+    // Só chega aqui depois do commit de quem alterou o usuário
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (enabled) {
+            apply(new UserTokenStateDTO(event.userId(), event.tokenVersion(), event.active()));
+        }
+    }
+
+    /**
+     * Usuários que o mapa ainda não conhece (criados em outro nó depois da última atualização,
+     * ou antes de a carga inicial terminar ou se ela falhou) são conferidos no banco pelo
+     * {@link PrincipalCache}; o estado encontrado passa a valer aqui também.
+     */
+    public boolean isCurrent(JwtPrincipal claims) {
+        UserTokenStateDTO state = states.get(claims.userId());
+        if (state != null) {
+            return Boolean.TRUE.equals(state.active()) && state.tokenVersion() == claims.tokenVersion();
+        }
+
+        User user = principalCache.resolve(claims.email(), claims.userId(), claims.tokenVersion());
+        if (user == null) {
+            return false;
+        }
+        apply(new UserTokenStateDTO(user.getId(), user.getTokenVersion(), user.getActive()));
+        return true;
+    }
+
+    // A versão só cresce: uma leitura atrasada do banco não desfaz uma revogação já vista
+    private void apply(UserTokenStateDTO state) {
+        states.merge(state.userId(), state,
+                (current, incoming) -> incoming.tokenVersion() >= current.tokenVersion() ? incoming : current);
+    }
+}
@@ -0,0 +1,100 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Carga e atualização comuns aos {@link ProductIndex}: a carga inicial quando a aplicação sobe,
+ * os {@link ProductChangedEvent} deste nó e os lotes do {@link ProductIndexRefresher} passam
+ * todos por {@link #replace} sob o mesmo write lock. Consultas usam {@link #read}.
+ * <p>
+ * A carga lê o banco sem segurar o lock; um produto alterado nesse meio-tempo mantém a versão
+ * do evento, que é mais nova que a lida.
+ */
+@Slf4j
+public abstract class AbstractProductIndex implements ProductIndex {
+
+    private final ProductSnapshotLoader snapshotLoader;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Produtos alterados enquanto a carga inicial lia o banco; a versão do evento prevalece
+    private Set<Long> changedDuringLoad;
+
+    protected AbstractProductIndex(ProductSnapshotLoader snapshotLoader) {
+        this.snapshotLoader = snapshotLoader;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ProductChangedEvent> products = snapshotLoader.loadActive();
+
+        lock.writeLock().lock();
+        try {
+            for (ProductChangedEvent product : products) {
+                if (!changedDuringLoad.contains(product.productId())) {
+                    replace(product);
+                }
+            }
+            changedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("{} carregado com {} produtos", description(), products.size());
+    }
+
+    // Só chega aqui depois do commit de quem alterou o produto
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        apply(List.of(event));
+    }
+
+    @Override
+    public void apply(List<ProductChangedEvent> products) {
+        lock.writeLock().lock();
+        try {
+            for (ProductChangedEvent product : products) {
+                if (changedDuringLoad != null) {
+                    changedDuringLoad.add(product.productId());
+                }
+                replace(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    protected <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Troca o que está indexado do produto pela versão recebida; produto inativo só sai.
+     * Sempre chamado com o write lock.
+     */
+    protected abstract void replace(ProductChangedEvent product);
+
+    // Para o log da carga
+    protected abstract String description();
+}
@@ -3,6 +3,7 @@ package com.artecomcarinho.service;
 import com.artecomcarinho.dto.AddressDTO;
 import com.artecomcarinho.exception.ResourceNotFoundException;
 import com.artecomcarinho.exception.UnauthorizedException;
+import com.artecomcarinho.mapper.AddressMapper;
 import com.artecomcarinho.model.Address;
 import com.artecomcarinho.model.User;
 import com.artecomcarinho.repository.AddressRepository;
@@ -20,12 +21,13 @@ public class AddressService {
 
     private final AddressRepository addressRepository;
     private final UserRepository userRepository;
+    private final AddressMapper addressMapper;
 
     public List<AddressDTO> getUserAddresses(String email) {
         User user = getUserByEmail(email);
         return addressRepository.findByUserId(user.getId())
                 .stream()
-                .map(AddressDTO::new)
+                .map(addressMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -33,24 +35,17 @@ public class AddressService {
     public AddressDTO createAddress(String email, AddressDTO dto) {
         User user = getUserByEmail(email);
 
-        Address address = Address.builder()
-                .user(user)
-                .zipCode(dto.getZipCode().replaceAll("\\D", ""))
-                .street(dto.getStreet())
-                .number(dto.getNumber())
-                .complement(dto.getComplement())
-                .neighborhood(dto.getNeighborhood())
-                .city(dto.getCity())
-                .state(dto.getState().toUpperCase())
-                .isDefault(dto.isDefault())
-                .build();
+        Address address = new Address();
+        addressMapper.updateEntity(dto, address);
+        address.setUser(user);
+        address.setDefault(dto.isDefault());
 
         if (address.isDefault() || addressRepository.findByUserId(user.getId()).isEmpty()) {
             address.setDefault(true);
             unsetOtherDefaults(user.getId());
         }
 
-        return new AddressDTO(addressRepository.save(address));
+        return addressMapper.toDTO(addressRepository.save(address));
     }
 
     @Transactional
@@ -63,20 +58,14 @@ public class AddressService {
             throw new UnauthorizedException("Este endereco nao pertence a voce");
         }
 
-        address.setZipCode(dto.getZipCode().replaceAll("\\D", ""));
-        address.setStreet(dto.getStreet());
-        address.setNumber(dto.getNumber());
-        address.setComplement(dto.getComplement());
-        address.setNeighborhood(dto.getNeighborhood());
-        address.setCity(dto.getCity());
-        address.setState(dto.getState().toUpperCase());
+        addressMapper.updateEntity(dto, address);
 
         if (dto.isDefault() && !address.isDefault()) {
             unsetOtherDefaults(user.getId());
             address.setDefault(true);
         }
 
-        return new AddressDTO(addressRepository.save(address));
+        return addressMapper.toDTO(addressRepository.save(address));
     }
 
     @Transactional
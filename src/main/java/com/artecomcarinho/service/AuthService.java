@@ -1,11 +1,14 @@
 package com.artecomcarinho.service;
 
 import com.artecomcarinho.dto.AuthDTO;
+import com.artecomcarinho.event.UserChangedEvent;
 import com.artecomcarinho.exception.DuplicateResourceException;
 import com.artecomcarinho.model.User;
 import com.artecomcarinho.repository.UserRepository;
 import com.artecomcarinho.security.JwtUtil;
+import com.artecomcarinho.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,6 +24,8 @@ public class AuthService {
     private final JwtUtil jwtUtil;
     private final TurnstileService turnstileService;
     private final NotificationService notificationService;
+    private final PrincipalCache principalCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public AuthDTO.AuthResponse register(AuthDTO.RegisterRequest request) {
@@ -102,8 +107,11 @@ public class AuthService {
         User user = userRepository.findByEmailIgnoreCase(normalizeEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario nao encontrado"));
 
+        principalCache.evict(user);
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.revokeTokens();
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
     }
 
     private String normalizeEmail(String email) {
@@ -2,6 +2,7 @@ package com.artecomcarinho.service;
 
 import com.artecomcarinho.dto.CustomerKpiDTO;
 import com.artecomcarinho.dto.CustomerSummaryDTO;
+import com.artecomcarinho.mapper.CustomerMapper;
 import com.artecomcarinho.model.Order;
 import com.artecomcarinho.repository.CustomerRepository;
 import com.artecomcarinho.repository.OrderRepository;
@@ -16,22 +17,19 @@ public class CustomerService {
 
     private final CustomerRepository customerRepository;
     private final OrderRepository orderRepository;
+    private final CustomerMapper customerMapper;
 
-    public CustomerService(CustomerRepository customerRepository, OrderRepository orderRepository) {
+    public CustomerService(CustomerRepository customerRepository, OrderRepository orderRepository,
+                           CustomerMapper customerMapper) {
         this.customerRepository = customerRepository;
         this.orderRepository = orderRepository;
+        this.customerMapper = customerMapper;
     }
 
     public List<CustomerSummaryDTO> getAllCustomersForAdmin() {
         return customerRepository.findAllByOrderByNameAsc()
                 .stream()
-                .map(c -> new CustomerSummaryDTO(
-                        c.getId(),
-                        c.getName(),
-                        c.getEmail(),
-                        c.getPhone(),
-                        c.getCreatedAt()
-                ))
+                .map(customerMapper::toSummary)
                 .toList();
     }
     public List<CustomerKpiDTO> getCustomerKpis() {
@@ -0,0 +1,190 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.event.OrderStatusChangedEvent;
+import com.artecomcarinho.model.DailySalesRollup;
+import com.artecomcarinho.model.DailySalesRollupState;
+import com.artecomcarinho.model.Order.OrderStatus;
+import com.artecomcarinho.repository.DailySalesRollupRepository;
+import com.artecomcarinho.repository.DailySalesRollupStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mantém a tabela daily_sales_rollup, de onde saem todas as estatísticas do dashboard.
+ * Cada pedido criado/alterado aplica um delta após o commit; o rebuild recalcula tudo
+ * a partir dos pedidos e corrige qualquer divergência.
+ * <p>
+ * Rebuild e deltas se coordenam pela linha de {@link DailySalesRollupState}: o rebuild a trava
+ * em modo exclusivo e avança a geração; a transação do pedido lê a geração com trava
+ * compartilhada logo antes do commit, e o delta só é aplicado se a geração ainda for a mesma.
+ * Se um rebuild rodou entre o commit do pedido e o delta, ele já contou o pedido.
+ */
+@Slf4j
+@Service
+public class DailySalesRollupService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final DailySalesRollupStateRepository stateRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DailySalesRollupService(DailySalesRollupRepository rollupRepository,
+                                   DailySalesRollupStateRepository stateRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.stateRepository = stateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Ainda dentro da transação do pedido: a trava vale até o commit, então nenhum rebuild começa entre a leitura e o commit
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!event.statusChanged() || event.orderDay() == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyWithRetry(event, null);
+            return;
+        }
+
+        Long generation = stateRepository.findLocked().map(DailySalesRollupState::getGeneration).orElse(null);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyWithRetry(event, generation);
+            }
+        });
+    }
+
+    /**
+     * Recalcula o consolidado inteiro a partir de orders/order_items.
+     */
+    public void rebuild() {
+        ensureState();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Espera os pedidos que já leram a geração commitarem; os próximos esperam este commit
+            stateRepository.advanceGeneration();
+            rollupRepository.deleteAllInBatch();
+            int orderRows = rollupRepository.rebuildOrderTotals();
+            int productRows = rollupRepository.rebuildProductTotals();
+            log.info("Consolidado de vendas recalculado: {} linhas de pedidos, {} linhas de produtos",
+                    orderRows, productRows);
+        });
+    }
+
+    @Scheduled(cron = "${app.stats.rollup.rebuild-cron:0 30 3 * * *}", zone = "America/Sao_Paulo")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        ensureState();
+        if (rollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    // generation nulo: sem transação ou sem a linha de estado, aplica sem conferir
+    private void applyWithRetry(OrderStatusChangedEvent event, Long generation) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Long current = stateRepository.findLocked().map(DailySalesRollupState::getGeneration).orElse(null);
+                    if (generation != null && !generation.equals(current)) {
+                        log.debug("Pedido {} ja contado pelo rebuild; delta descartado", event.orderId());
+                        return;
+                    }
+                    apply(event);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Outro nó criou a mesma linha (dia, status, produto) ao mesmo tempo: tenta de novo
+                log.debug("Conflito ao atualizar consolidado do pedido {}, tentativa {}", event.orderId(), attempt);
+            }
+        }
+
+        log.warn("Nao foi possivel atualizar o consolidado de vendas do pedido {}; sera corrigido no proximo rebuild",
+                event.orderId());
+    }
+
+    private void ensureState() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!stateRepository.existsById(DailySalesRollupState.SINGLETON)) {
+                    stateRepository.insertState();
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Outro nó criou a linha ao mesmo tempo
+            log.debug("Estado do consolidado de vendas criado em paralelo");
+        }
+    }
+
+    private void apply(OrderStatusChangedEvent event) {
+        if (!event.isCreation()) {
+            applyDelta(event, event.previousStatus(), -1);
+        }
+        applyDelta(event, event.newStatus(), 1);
+    }
+
+    private void applyDelta(OrderStatusChangedEvent event, OrderStatus status, int sign) {
+        LocalDate day = event.orderDay();
+
+        upsert(day, status, DailySalesRollup.ORDER_TOTALS, sign, 0, signed(event.totalAmount(), sign));
+
+        // Um mesmo produto pode aparecer em mais de um item do pedido
+        Map<Long, ProductDelta> byProduct = new LinkedHashMap<>();
+        for (OrderStatusChangedEvent.Line line : event.lines()) {
+            ProductDelta delta = byProduct.computeIfAbsent(line.productId(), id -> new ProductDelta());
+            delta.quantity += line.quantity();
+            delta.revenue = delta.revenue.add(line.subtotal());
+        }
+
+        byProduct.forEach((productId, delta) ->
+                upsert(day, status, productId, 0, sign * delta.quantity, signed(delta.revenue, sign)));
+    }
+
+    private void upsert(LocalDate day, OrderStatus status, Long productId,
+                        long orders, long quantity, BigDecimal revenue) {
+        int updated = rollupRepository.increment(day, status, productId, orders, quantity, revenue);
+        if (updated == 0) {
+            rollupRepository.saveAndFlush(DailySalesRollup.builder()
+                    .salesDate(day)
+                    .status(status)
+                    .productId(productId)
+                    .orderCount(orders)
+                    .quantity(quantity)
+                    .revenue(revenue)
+                    .build());
+        }
+    }
+
+    private BigDecimal signed(BigDecimal value, int sign) {
+        return sign < 0 ? value.negate() : value;
+    }
+
+    private static class ProductDelta {
+        private long quantity = 0;
+        private BigDecimal revenue = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,74 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.exception.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de paginação por keyset: (timestamp, id) para pedidos e apenas (id) para produtos.
+ * Trafega como string base64 opaca no parâmetro {@code after}.
+ */
+public record KeysetCursor(LocalDateTime timestamp, Long id) {
+
+    /**
+     * Posição antes do primeiro registro em ordenação decrescente por data.
+     */
+    public static final KeysetCursor NEWEST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static final KeysetCursor FIRST_ID = new KeysetCursor(null, 0L);
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Cursor recebido no {@code after}, ou a posição inicial de {@code shape} se vier vazio.
+     * Um cursor de outro formato (de produto num endpoint de pedidos, por exemplo) é recusado.
+     */
+    public static KeysetCursor decode(String raw, Shape shape) {
+        if (raw == null || raw.isBlank()) {
+            return shape.start;
+        }
+
+        KeysetCursor cursor;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(raw), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            cursor = separator < 0
+                    ? new KeysetCursor(null, Long.parseLong(value))
+                    : new KeysetCursor(
+                            LocalDateTime.parse(value.substring(0, separator)),
+                            Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidOperationException("Cursor de paginacao invalido");
+        }
+
+        if ((cursor.timestamp() != null) != (shape == Shape.TIMESTAMP_AND_ID)) {
+            throw new InvalidOperationException("Cursor de paginacao invalido");
+        }
+        return cursor;
+    }
+
+    public String encode() {
+        String value = timestamp == null ? String.valueOf(id) : timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public enum Shape {
+        /** Pedidos: mais novos primeiro, por (data, id). */
+        TIMESTAMP_AND_ID(NEWEST),
+        /** Produtos: por id crescente. */
+        ID(FIRST_ID);
+
+        private final KeysetCursor start;
+
+        Shape(KeysetCursor start) {
+            this.start = start;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.artecomcarinho.service;
 
 import com.artecomcarinho.dto.CardPaymentRequest;
+import com.artecomcarinho.event.OrderStatusChangedEvent;
 import com.artecomcarinho.exception.InvalidOperationException;
 import com.artecomcarinho.exception.ResourceNotFoundException;
 import com.artecomcarinho.model.Order;
@@ -14,6 +15,7 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -43,6 +45,7 @@ public class MercadoPagoPixService {
     private final OrderRepository orderRepository;
     private final PaymentRepository paymentRepository;
     private final AccessControlService accessControlService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private final RestTemplate restTemplate = new RestTemplate();
 
@@ -108,9 +111,11 @@ public class MercadoPagoPixService {
                 .build();
 
         if (payment.getStatus() == PaymentStatus.PAID) {
+            Order.OrderStatus oldStatus = order.getStatus();
             order.setPaymentStatus(Order.PaymentStatus.PAID);
             order.setStatus(Order.OrderStatus.IN_PRODUCTION);
             orderRepository.save(order);
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, oldStatus));
         }
 
         return paymentRepository.save(payment);
@@ -169,9 +174,11 @@ public class MercadoPagoPixService {
                 .build();
 
         if (payment.getStatus() == PaymentStatus.PAID) {
+            Order.OrderStatus oldStatus = order.getStatus();
             order.setPaymentStatus(Order.PaymentStatus.PAID);
             order.setStatus(Order.OrderStatus.IN_PRODUCTION);
             orderRepository.save(order);
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, oldStatus));
         }
 
         return paymentRepository.save(payment);
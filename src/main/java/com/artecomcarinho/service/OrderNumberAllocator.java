@@ -0,0 +1,109 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.repository.OrderNumberCounterRepository;
+import com.artecomcarinho.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Gera os números de pedido PED-yyyyMMdd-NNNN com um contador por dia.
+ * <p>
+ * A linha do dia em order_number_counters só é tocada a cada {@code blockSize} pedidos,
+ * numa transação própria e curta: o nó reserva um bloco inteiro e distribui os números
+ * em memória. Números de um bloco não usado (restart do nó) ficam como lacuna.
+ * Como a reserva usa outra conexão (igual ao TableGenerator do Hibernate), o pool
+ * precisa de folga de uma conexão por nó.
+ */
+@Slf4j
+@Service
+public class OrderNumberAllocator {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OrderNumberCounterRepository counterRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private LocalDate currentDay;
+    private long nextValue;
+    private long lastReserved;
+
+    public OrderNumberAllocator(OrderNumberCounterRepository counterRepository,
+                                OrderRepository orderRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.orders.number-block-size:20}") int blockSize) {
+        this.counterRepository = counterRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public synchronized String nextOrderNumber() {
+        LocalDate today = LocalDate.now();
+
+        if (!today.equals(currentDay) || nextValue > lastReserved) {
+            long reserved = reserveBlock(today);
+            currentDay = today;
+            lastReserved = reserved;
+            nextValue = reserved - blockSize + 1;
+        }
+
+        return String.format("PED-%s-%04d", today.format(DAY_FORMAT), nextValue++);
+    }
+
+    /**
+     * Reserva o próximo bloco do dia e devolve o último número do bloco.
+     */
+    private long reserveBlock(LocalDate day) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                Long reserved = transactionTemplate.execute(status -> {
+                    if (counterRepository.reserveBlock(day, blockSize) > 0) {
+                        return counterRepository.findLastValue(day).orElseThrow();
+                    }
+
+                    long last = highestExistingNumber(day) + blockSize;
+                    counterRepository.insertCounter(day, last);
+                    return last;
+                });
+                return reserved;
+            } catch (DataIntegrityViolationException e) {
+                // Outro nó criou o contador do dia ao mesmo tempo; na próxima tentativa o update encontra a linha
+                log.debug("Contador de pedidos de {} criado em paralelo, tentativa {}", day, attempt);
+            }
+        }
+
+        throw new IllegalStateException("Nao foi possivel reservar numeros de pedido para " + day);
+    }
+
+    /**
+     * Continua a partir de pedidos já gravados no dia (ex.: criados antes do contador existir).
+     */
+    private long highestExistingNumber(LocalDate day) {
+        String prefix = "PED-" + day.format(DAY_FORMAT) + "-";
+        return orderRepository.findHighestOrderNumbersWithPrefix(prefix + "%", Limit.of(1)).stream()
+                .findFirst()
+                .map(number -> parseSequence(number, prefix))
+                .orElse(0L);
+    }
+
+    private long parseSequence(String orderNumber, String prefix) {
+        try {
+            return Long.parseLong(orderNumber.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.artecomcarinho.service;
 
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.dto.CursorPageDTO;
 import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.event.OrderStatusChangedEvent;
+import com.artecomcarinho.exception.InsufficientStockException;
+import com.artecomcarinho.mapper.OrderMapper;
 import com.artecomcarinho.model.Customer;
 import com.artecomcarinho.model.Order;
 import com.artecomcarinho.model.Order.OrderStatus;
@@ -11,6 +16,10 @@ import com.artecomcarinho.repository.OrderRepository;
 import com.artecomcarinho.repository.ProductRepository;
 import com.artecomcarinho.security.AccessControlService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -20,8 +29,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,45 +46,63 @@ public class OrderService {
     private final ProductRepository productRepository;
     private final AccessControlService accessControlService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderNumberAllocator orderNumberAllocator;
+    private final OrderMapper orderMapper;
+    private final CacheManager cacheManager;
 
     public Page<OrderDTO> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable).map(this::convertToDTO);
+        return toDTOPage(orderRepository.findPageIds(pageable));
+    }
+
+    public CursorPageDTO<OrderDTO> scrollOrders(String after, int requestedSize) {
+        int size = KeysetCursor.pageSize(requestedSize);
+        KeysetCursor cursor = KeysetCursor.decode(after, KeysetCursor.Shape.TIMESTAMP_AND_ID);
+        return toCursorPage(orderRepository.findKeysetIds(cursor.timestamp(), cursor.id(), Limit.of(size + 1)), size);
+    }
+
+    public CursorPageDTO<OrderDTO> scrollOrdersByStatus(OrderStatus status, String after, int requestedSize) {
+        int size = KeysetCursor.pageSize(requestedSize);
+        KeysetCursor cursor = KeysetCursor.decode(after, KeysetCursor.Shape.TIMESTAMP_AND_ID);
+        return toCursorPage(
+                orderRepository.findKeysetIdsByStatus(status, cursor.timestamp(), cursor.id(), Limit.of(size + 1)), size);
     }
 
     public OrderDTO getOrderById(Long id, Authentication authentication) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido nao encontrado com ID: " + id));
         accessControlService.ensureOrderAccess(authentication, order);
-        return convertToDTO(order);
+        return orderMapper.toDTO(order);
     }
 
     public OrderDTO getOrderByNumber(String orderNumber, Authentication authentication) {
         Order order = orderRepository.findByOrderNumber(orderNumber)
                 .orElseThrow(() -> new RuntimeException("Pedido nao encontrado com numero: " + orderNumber));
         accessControlService.ensureOrderAccess(authentication, order);
-        return convertToDTO(order);
+        return orderMapper.toDTO(order);
     }
 
     public Page<OrderDTO> getOrdersByCustomer(Long customerId, Pageable pageable) {
-        return orderRepository.findByCustomerId(customerId, pageable).map(this::convertToDTO);
+        return toDTOPage(orderRepository.findPageIdsByCustomerId(customerId, pageable));
     }
 
     public Page<OrderDTO> getOrdersByCustomerEmail(String email, Pageable pageable) {
         return customerRepository.findByEmailIgnoreCase(email)
-                .map(customer -> orderRepository.findByCustomerId(customer.getId(), pageable).map(this::convertToDTO))
+                .map(customer -> toDTOPage(orderRepository.findPageIdsByCustomerId(customer.getId(), pageable)))
                 .orElse(Page.empty(pageable));
     }
 
     public Page<OrderDTO> getOrdersByStatus(OrderStatus status, Pageable pageable) {
-        return orderRepository.findByStatus(status, pageable).map(this::convertToDTO);
+        return toDTOPage(orderRepository.findPageIdsByStatus(status, pageable));
     }
 
     public List<OrderDTO> getOrdersByDateRange(LocalDate startDate, LocalDate endDate) {
-        return orderRepository.findByOrderDateBetween(startDate, endDate).stream().map(this::convertToDTO).toList();
+        return orderRepository.findWithItemsByOrderDateRange(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())
+                .stream().map(orderMapper::toDTO).toList();
     }
 
     public List<OrderDTO> getUpcomingDeliveries(LocalDate startDate, LocalDate endDate) {
-        return orderRepository.findUpcomingDeliveries(startDate, endDate).stream().map(this::convertToDTO).toList();
+        return orderRepository.findUpcomingDeliveries(startDate, endDate).stream().map(orderMapper::toDTO).toList();
     }
 
     public BigDecimal getTotalRevenue(LocalDate startDate, LocalDate endDate) {
@@ -84,7 +115,7 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Cliente nao encontrado com ID: " + orderDTO.getCustomerId()));
 
         Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberAllocator.nextOrderNumber());
         order.setCustomer(customer);
         order.setStatus(orderDTO.getStatus() != null ? orderDTO.getStatus() : OrderStatus.PENDING);
         order.setOrderDate(orderDTO.getOrderDate() != null ? orderDTO.getOrderDate() : LocalDateTime.now());
@@ -96,13 +127,13 @@ public class OrderService {
         order.setDiscount(orderDTO.getDiscount() != null ? orderDTO.getDiscount() : BigDecimal.ZERO);
         order.setShippingCost(orderDTO.getShippingCost() != null ? orderDTO.getShippingCost() : BigDecimal.ZERO);
 
+        Map<Long, Product> products = findProducts(orderDTO.getItems());
+
         BigDecimal total = BigDecimal.ZERO;
         for (OrderDTO.OrderItemDTO itemDTO : orderDTO.getItems()) {
-            Product product = productRepository.findById(itemDTO.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Produto nao encontrado com ID: " + itemDTO.getProductId()));
-
-            if (product.getStock() < itemDTO.getQuantity()) {
-                throw new RuntimeException("Estoque insuficiente para o produto: " + product.getName());
+            Product product = products.get(itemDTO.getProductId());
+            if (product == null) {
+                throw new RuntimeException("Produto nao encontrado com ID: " + itemDTO.getProductId());
             }
 
             OrderItem item = new OrderItem();
@@ -117,15 +148,15 @@ public class OrderService {
 
             order.getItems().add(item);
             total = total.add(item.getSubtotal());
-
-            product.setStock(product.getStock() - itemDTO.getQuantity());
-            productRepository.save(product);
         }
 
+        decrementStock(order.getItems(), products);
+
         order.setTotalAmount(total.add(order.getShippingCost()).subtract(order.getDiscount()));
 
         Order savedOrder = orderRepository.save(order);
-        return convertToDTO(savedOrder);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(savedOrder, null));
+        return orderMapper.toDTO(savedOrder);
     }
 
     @Transactional
@@ -141,6 +172,7 @@ public class OrderService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(updatedOrder, oldStatus));
 
         try {
             notificationService.notifyOrderStatusChange(updatedOrder, oldStatus, newStatus);
@@ -148,7 +180,7 @@ public class OrderService {
             System.out.println("Falha ao enviar notificacao de mudanca de status: " + e.getMessage());
         }
 
-        return convertToDTO(updatedOrder);
+        return orderMapper.toDTO(updatedOrder);
     }
 
     @Transactional
@@ -160,54 +192,111 @@ public class OrderService {
             throw new RuntimeException("Nao e possivel cancelar um pedido ja entregue");
         }
 
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            throw new RuntimeException("Pedido ja esta cancelado");
         }
 
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> quantities = quantitiesByProduct(order.getItems());
+        quantities.forEach((productId, quantity) -> productRepository.incrementStock(productId, quantity, now));
+        evictProducts(quantities.keySet());
+
+        OrderStatus oldStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, oldStatus));
+    }
+
+    /**
+     * Carrega todos os produtos do pedido numa única consulta, em vez de um findById por item.
+     */
+    private Map<Long, Product> findProducts(List<OrderDTO.OrderItemDTO> items) {
+        Set<Long> productIds = items.stream()
+                .map(OrderDTO.OrderItemDTO::getProductId)
+                .collect(Collectors.toSet());
+
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    /**
+     * Baixa o estoque com UPDATE condicional (stock >= quantidade), sem ler-alterar-gravar.
+     * Os produtos são atualizados sempre em ordem de id para que pedidos concorrentes
+     * travem as linhas na mesma ordem e não entrem em deadlock.
+     */
+    private void decrementStock(List<OrderItem> items, Map<Long, Product> products) {
+        Map<Long, Integer> quantities = quantitiesByProduct(items);
+
+        // Validação em memória com o estoque já carregado: recusa antes de travar qualquer linha
+        quantities.forEach((productId, quantity) -> {
+            if (products.get(productId).getStock() < quantity) {
+                throw insufficientStock(products.get(productId));
+            }
+        });
+
+        // Um único lote JDBC; os UPDATEs executam na ordem do TreeMap
+        int[] updated = productRepository.decrementStocks(quantities, LocalDateTime.now());
+        int index = 0;
+        for (Long productId : quantities.keySet()) {
+            if (updated[index++] == 0) {
+                throw insufficientStock(products.get(productId));
+            }
+        }
+        evictProducts(quantities.keySet());
+    }
+
+    // Só o estoque destes produtos mudou; o cache é transacional, então a evicção espera o commit
+    private void evictProducts(Set<Long> productIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS);
+        productIds.forEach(cache::evict);
+    }
+
+    private InsufficientStockException insufficientStock(Product product) {
+        return new InsufficientStockException("Estoque insuficiente para o produto: " + product.getName());
     }
 
-    private String generateOrderNumber() {
-        String date = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = orderRepository.count() + 1;
-        return String.format("PED-%s-%04d", date, count);
-    }
-
-    private OrderDTO convertToDTO(Order order) {
-        OrderDTO dto = new OrderDTO();
-        dto.setId(order.getId());
-        dto.setOrderNumber(order.getOrderNumber());
-        dto.setCustomerId(order.getCustomer().getId());
-        dto.setCustomerName(order.getCustomer().getName());
-        dto.setStatus(order.getStatus());
-        dto.setTotalAmount(order.getTotalAmount());
-        dto.setDiscount(order.getDiscount());
-        dto.setShippingCost(order.getShippingCost());
-        dto.setOrderDate(order.getOrderDate());
-        dto.setExpectedDeliveryDate(order.getExpectedDeliveryDate());
-        dto.setDeliveredDate(order.getDeliveredDate());
-        dto.setPaymentMethod(order.getPaymentMethod());
-        dto.setPaymentStatus(order.getPaymentStatus());
-        dto.setNotes(order.getNotes());
-        dto.setCustomizationDetails(order.getCustomizationDetails());
-        dto.setItems(order.getItems().stream().map(this::convertItemToDTO).toList());
-        return dto;
-    }
-
-    private OrderDTO.OrderItemDTO convertItemToDTO(OrderItem item) {
-        OrderDTO.OrderItemDTO dto = new OrderDTO.OrderItemDTO();
-        dto.setId(item.getId());
-        dto.setProductId(item.getProduct().getId());
-        dto.setProductName(item.getProduct().getName());
-        dto.setQuantity(item.getQuantity());
-        dto.setUnitPrice(item.getUnitPrice());
-        dto.setSubtotal(item.getSubtotal());
-        dto.setSelectedSize(item.getSelectedSize());
-        dto.setSelectedColor(item.getSelectedColor());
-        dto.setCustomizationNotes(item.getCustomizationNotes());
-        return dto;
+    private Map<Long, Integer> quantitiesByProduct(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Segunda fase da paginação: carrega cliente, itens e produtos da página
+     * inteira em uma única consulta e devolve na ordem dos ids.
+     */
+    private Page<OrderDTO> toDTOPage(Page<Long> ids) {
+        if (ids.isEmpty()) {
+            return ids.map(id -> null);
+        }
+
+        Map<Long, Order> ordersById = orderRepository.findWithItemsByIdIn(ids.getContent())
+                .stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity(), (a, b) -> a));
+
+        return ids.map(id -> orderMapper.toDTO(ordersById.get(id)));
+    }
+
+    /**
+     * Os ids vêm com um registro a mais que o tamanho pedido só para saber se há próxima página.
+     */
+    private CursorPageDTO<OrderDTO> toCursorPage(List<Long> ids, int size) {
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        if (pageIds.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null, false, size);
+        }
+
+        Map<Long, Order> ordersById = orderRepository.findWithItemsByIdIn(pageIds)
+                .stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity(), (a, b) -> a));
+
+        List<OrderDTO> content = pageIds.stream().map(id -> orderMapper.toDTO(ordersById.get(id))).toList();
+        Order last = ordersById.get(pageIds.get(pageIds.size() - 1));
+        String nextCursor = hasNext ? new KeysetCursor(last.getOrderDate(), last.getId()).encode() : null;
+
+        return new CursorPageDTO<>(content, nextCursor, hasNext, size);
     }
 }
@@ -0,0 +1,176 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.dto.PriceBucket;
+import com.artecomcarinho.dto.ProductFacetCountsDTO;
+import com.artecomcarinho.dto.ProductFacetFilterDTO;
+import com.artecomcarinho.event.ProductChangedEvent;
+import com.artecomcarinho.model.Product.ProductCategory;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Índice de facetas do catálogo: um RoaringBitmap de ids de produtos ativos por categoria,
+ * tamanho, cor, faixa de preço e personalizável.
+ * <p>
+ * Filtrar é interseção de bitmaps e cada contagem é uma cardinalidade de interseção, então
+ * a navegação nunca faz GROUP BY no banco. Como o {@link ProductSuggestionIndex}, é carregado
+ * quando a aplicação sobe e depois segue os {@link ProductChangedEvent} e o
+ * {@link ProductIndexRefresher}.
+ */
+@Component
+public class ProductFacetIndex extends AbstractProductIndex {
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<ProductCategory, RoaringBitmap> byCategory = new EnumMap<>(ProductCategory.class);
+    private final Map<String, RoaringBitmap> bySize = new TreeMap<>();
+    private final Map<String, RoaringBitmap> byColor = new TreeMap<>();
+    private final Map<PriceBucket, RoaringBitmap> byPrice = new EnumMap<>(PriceBucket.class);
+    private final RoaringBitmap customizable = new RoaringBitmap();
+    private final Map<Long, ProductChangedEvent> indexed = new HashMap<>();
+
+    /**
+     * Ids de uma página do resultado (mais novos primeiro) e as contagens de cada faceta.
+     */
+    public record Result(List<Long> productIds, long total, ProductFacetCountsDTO facets) {
+    }
+
+    public ProductFacetIndex(ProductSnapshotLoader snapshotLoader) {
+        super(snapshotLoader);
+    }
+
+    @Override
+    protected String description() {
+        return "Indice de facetas";
+    }
+
+    public Result query(ProductFacetFilterDTO filter, Pageable pageable) {
+        return read(() -> {
+            RoaringBitmap categoryMatch = union(byCategory, filter.categories());
+            RoaringBitmap sizeMatch = union(bySize, filter.sizes());
+            RoaringBitmap colorMatch = union(byColor, filter.colors());
+            RoaringBitmap priceMatch = union(byPrice, filter.prices());
+            RoaringBitmap customizableMatch = filter.customizable() == null ? null
+                    : filter.customizable() ? customizable : RoaringBitmap.andNot(all, customizable);
+
+            // Cada faceta é contada com os filtros das outras, para o cliente ver as alternativas
+            ProductFacetCountsDTO facets = new ProductFacetCountsDTO(
+                    count(byCategory, intersect(sizeMatch, colorMatch, priceMatch, customizableMatch)),
+                    count(bySize, intersect(categoryMatch, colorMatch, priceMatch, customizableMatch)),
+                    count(byColor, intersect(categoryMatch, sizeMatch, priceMatch, customizableMatch)),
+                    count(byPrice, intersect(categoryMatch, sizeMatch, colorMatch, customizableMatch)),
+                    RoaringBitmap.andCardinality(customizable,
+                            intersect(categoryMatch, sizeMatch, colorMatch, priceMatch)));
+
+            RoaringBitmap matches = intersect(categoryMatch, sizeMatch, colorMatch, priceMatch, customizableMatch);
+            return new Result(page(matches, pageable), matches.getLongCardinality(), facets);
+        });
+    }
+
+    @Override
+    protected void replace(ProductChangedEvent product) {
+        ProductChangedEvent previous = indexed.remove(product.productId());
+        if (previous != null) {
+            update(previous, false);
+        }
+        if (product.active()) {
+            indexed.put(product.productId(), product);
+            update(product, true);
+        }
+    }
+
+    private void update(ProductChangedEvent product, boolean add) {
+        int id = Math.toIntExact(product.productId());
+        apply(all, id, add);
+        if (product.category() != null) {
+            apply(byCategory, product.category(), id, add);
+        }
+        product.sizes().forEach(size -> apply(bySize, size, id, add));
+        product.colors().forEach(color -> apply(byColor, color, id, add));
+        PriceBucket bucket = PriceBucket.of(product.price());
+        if (bucket != null) {
+            apply(byPrice, bucket, id, add);
+        }
+        if (product.customizable()) {
+            apply(customizable, id, add);
+        }
+    }
+
+    private static <K> void apply(Map<K, RoaringBitmap> index, K key, int id, boolean add) {
+        if (add) {
+            index.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+            return;
+        }
+        RoaringBitmap bitmap = index.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static void apply(RoaringBitmap bitmap, int id, boolean add) {
+        if (add) {
+            bitmap.add(id);
+        } else {
+            bitmap.remove(id);
+        }
+    }
+
+    // Nulo quando a faceta não filtra
+    private static <K> RoaringBitmap union(Map<K, RoaringBitmap> index, Collection<K> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap result = new RoaringBitmap();
+        for (K value : values) {
+            RoaringBitmap bitmap = index.get(value);
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap intersect(RoaringBitmap... filters) {
+        RoaringBitmap result = all.clone();
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<K, Integer> count(Map<K, RoaringBitmap> index, RoaringBitmap base) {
+        Map<K, Integer> counts = new LinkedHashMap<>();
+        index.forEach((value, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(bitmap, base);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        return counts;
+    }
+
+    // Mais novos primeiro: select(j) devolve o j-ésimo menor id sem percorrer os anteriores
+    private static List<Long> page(RoaringBitmap matches, Pageable pageable) {
+        List<Long> ids = new ArrayList<>(pageable.getPageSize());
+        long last = matches.getLongCardinality() - 1 - pageable.getOffset();
+        for (long rank = last; rank >= 0 && ids.size() < pageable.getPageSize(); rank--) {
+            ids.add((long) matches.select((int) rank));
+        }
+        return ids;
+    }
+}
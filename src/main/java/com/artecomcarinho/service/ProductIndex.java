@@ -0,0 +1,14 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.event.ProductChangedEvent;
+
+import java.util.List;
+
+/**
+ * Índice de catálogo em memória. Além dos {@link ProductChangedEvent} deste nó, recebe em lote,
+ * pelo {@link ProductIndexRefresher}, os produtos alterados em qualquer nó.
+ */
+public interface ProductIndex {
+
+    void apply(List<ProductChangedEvent> products);
+}
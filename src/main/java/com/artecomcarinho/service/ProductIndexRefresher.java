@@ -0,0 +1,53 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mantém os {@link ProductIndex} em dia com alterações feitas em outros nós: a cada
+ * {@code refresh-ms} relê os produtos com {@code updatedAt} desde a última rodada (ativos ou não)
+ * e repassa para todos os índices. Os eventos locais continuam valendo na hora.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductIndexRefresher {
+
+    private final ProductSnapshotLoader snapshotLoader;
+    private final List<ProductIndex> indexes;
+
+    @Value("${app.sync.refresh-overlap:1m}")
+    private Duration refreshOverlap;
+
+    private volatile LocalDateTime lastRefresh;
+
+    // A folga cobre também o que mudou enquanto as cargas iniciais liam o banco
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lastRefresh = LocalDateTime.now();
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.index.refresh-ms:30000}")
+    public void refresh() {
+        if (lastRefresh == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<ProductChangedEvent> changed = snapshotLoader.loadChangedSince(lastRefresh.minus(refreshOverlap));
+        if (!changed.isEmpty()) {
+            indexes.forEach(index -> index.apply(changed));
+            log.debug("Indices de catalogo atualizados com {} produtos", changed.size());
+        }
+        lastRefresh = startedAt;
+    }
+}
@@ -1,17 +1,36 @@
 package com.artecomcarinho.service;
 
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.config.ProductSearchIndexInitializer;
+import com.artecomcarinho.dto.CursorPageDTO;
+import com.artecomcarinho.dto.FacetedProductPageDTO;
 import com.artecomcarinho.dto.ProductDTO;
+import com.artecomcarinho.dto.ProductFacetFilterDTO;
+import com.artecomcarinho.dto.ProductSuggestionDTO;
+import com.artecomcarinho.dto.ResourceVersionDTO;
+import com.artecomcarinho.event.ProductChangedEvent;
+import com.artecomcarinho.exception.InsufficientStockException;
+import com.artecomcarinho.mapper.ProductMapper;
 import com.artecomcarinho.model.Product;
 import com.artecomcarinho.model.Product.ProductCategory;
 import com.artecomcarinho.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,65 +39,150 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final ProductSearchIndexInitializer searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSuggestionIndex suggestionIndex;
+    private final ProductFacetIndex facetIndex;
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, key = "'all:' + #pageable")
     public Page<ProductDTO> getAllProducts(Pageable pageable) {
         return productRepository.findByActiveTrue(pageable)
-                .map(this::convertToDTO);
+                .map(productMapper::toDTO);
+    }
+
+    public CursorPageDTO<ProductDTO> scrollProducts(String after, int requestedSize) {
+        int size = KeysetCursor.pageSize(requestedSize);
+        KeysetCursor cursor = KeysetCursor.decode(after, KeysetCursor.Shape.ID);
+        List<Product> products = productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(
+                cursor.id(), Limit.of(size + 1));
+
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+        String nextCursor = hasNext ? new KeysetCursor(null, page.get(page.size() - 1).getId()).encode() : null;
+
+        return new CursorPageDTO<>(page.stream().map(productMapper::toDTO).toList(), nextCursor, hasNext, size);
     }
 
     public List<ProductDTO> getAllProducts() {
         return productRepository.findAll().stream()
-                .map(p -> modelMapper.map(p, ProductDTO.class))
+                .map(productMapper::toDTO)
                 .toList();
     }
 
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
-        return convertToDTO(product);
+        return productMapper.toDTO(product);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, key = "'category:' + #category + ':' + #pageable")
     public Page<ProductDTO> getProductsByCategory(ProductCategory category, Pageable pageable) {
         return productRepository.findByCategoryAndActiveTrue(category, pageable)
-                .map(this::convertToDTO);
+                .map(productMapper::toDTO);
     }
 
+    @Cacheable(CacheConfig.FEATURED_PRODUCTS)
     public List<ProductDTO> getFeaturedProducts() {
         return productRepository.findByFeaturedTrueAndActiveTrue()
                 .stream()
-                .map(this::convertToDTO)
+                .map(productMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     public Page<ProductDTO> searchProducts(String search, Pageable pageable) {
-        return productRepository.searchProducts(search, pageable)
-                .map(this::convertToDTO);
+        if (!searchIndex.isAvailable()) {
+            return productRepository.searchProducts(search, pageable)
+                    .map(productMapper::toDTO);
+        }
+
+        String tsQuery = toPrefixTsQuery(search);
+        if (tsQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        // Resultado vem ordenado por relevância; ordenação pedida pelo cliente não se aplica
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return productRepository.fullTextSearch(tsQuery, unsorted)
+                .map(productMapper::toDTO);
+    }
+
+    /**
+     * "toalha bord" -> "toalha & bord:*": todos os termos obrigatórios, o último como prefixo
+     * (o cliente ainda está digitando). Só letras e números passam, então o texto do usuário
+     * nunca quebra a sintaxe do to_tsquery.
+     */
+    static String toPrefixTsQuery(String search) {
+        if (search == null) {
+            return "";
+        }
+
+        List<String> terms = new ArrayList<>();
+        for (String token : search.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token.toLowerCase());
+            }
+        }
+        if (terms.isEmpty()) {
+            return "";
+        }
+
+        int last = terms.size() - 1;
+        terms.set(last, terms.get(last) + ":*");
+        return String.join(" & ", terms);
+    }
+
+    /**
+     * Página filtrada por facetas, mais novos primeiro. Filtro e contagens saem do índice em
+     * memória; o banco só carrega os produtos da página.
+     */
+    public FacetedProductPageDTO browse(ProductFacetFilterDTO filter, Pageable pageable) {
+        ProductFacetIndex.Result result = facetIndex.query(filter, pageable);
+
+        Map<Long, Product> products = productRepository.findAllById(result.productIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        // Produto desativado entre a consulta ao índice e a leitura fica fora da página
+        List<ProductDTO> content = result.productIds().stream()
+                .map(products::get)
+                .filter(product -> product != null && Boolean.TRUE.equals(product.getActive()))
+                .map(productMapper::toDTO)
+                .toList();
+
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return new FacetedProductPageDTO(new PageImpl<>(content, unsorted, result.total()), result.facets());
+    }
+
+    public List<ProductSuggestionDTO> suggest(String query, int limit) {
+        return suggestionIndex.suggest(query, limit);
     }
 
     public List<ProductDTO> getLowStockProducts(Integer threshold) {
         return productRepository.findLowStockProducts(threshold)
                 .stream()
-                .map(this::convertToDTO)
+                .map(productMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES, CacheConfig.FEATURED_PRODUCTS}, allEntries = true)
     public ProductDTO createProduct(ProductDTO productDTO) {
         // Validar SKU único
         if (productDTO.getSku() != null && productRepository.findBySku(productDTO.getSku()).isPresent()) {
             throw new RuntimeException("SKU já existe: " + productDTO.getSku());
         }
 
-        Product product = convertToEntity(productDTO);
+        Product product = productMapper.toEntity(productDTO);
         product.setActive(true);
 
         Product savedProduct = productRepository.save(product);
-        return convertToDTO(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.of(savedProduct));
+        return productMapper.toDTO(savedProduct);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES, CacheConfig.FEATURED_PRODUCTS}, allEntries = true)
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
@@ -91,23 +195,15 @@ public class ProductService {
         }
 
         // Atualizar campos
-        existingProduct.setName(productDTO.getName());
-        existingProduct.setDescription(productDTO.getDescription());
-        existingProduct.setCategory(productDTO.getCategory());
-        existingProduct.setPrice(productDTO.getPrice());
-        existingProduct.setStock(productDTO.getStock());
-        existingProduct.setSku(productDTO.getSku());
-        existingProduct.setImages(productDTO.getImages());
-        existingProduct.setSizes(productDTO.getSizes());
-        existingProduct.setColors(productDTO.getColors());
-        existingProduct.setFeatured(productDTO.getFeatured());
-        existingProduct.setCustomizable(productDTO.getCustomizable());
+        productMapper.updateEntity(productDTO, existingProduct);
 
         Product updatedProduct = productRepository.save(existingProduct);
-        return convertToDTO(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.of(updatedProduct));
+        return productMapper.toDTO(updatedProduct);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES, CacheConfig.FEATURED_PRODUCTS}, allEntries = true)
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
@@ -115,23 +211,26 @@ public class ProductService {
         // Soft delete
         product.setActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(product));
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES, CacheConfig.FEATURED_PRODUCTS}, allEntries = true)
     public void updateStock(Long id, Integer quantity) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
+        int updated = quantity >= 0
+                ? productRepository.incrementStock(id, quantity, LocalDateTime.now())
+                : productRepository.decrementStock(id, -quantity, LocalDateTime.now());
 
-        int newStock = product.getStock() + quantity;
-        if (newStock < 0) {
-            throw new RuntimeException("Estoque insuficiente");
+        if (updated == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new RuntimeException("Produto não encontrado com ID: " + id);
+            }
+            throw new InsufficientStockException("Estoque insuficiente");
         }
-
-        product.setStock(newStock);
-        productRepository.save(product);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES, CacheConfig.FEATURED_PRODUCTS}, allEntries = true)
     public void toggleFeatured(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
@@ -142,28 +241,19 @@ public class ProductService {
         productRepository.save(product);
     }
 
-    private ProductDTO convertToDTO(Product product) {
-        if (product == null) return null;
+    public ResourceVersionDTO getActiveProductsVersion() {
+        return productRepository.getActiveVersion();
+    }
 
+    public ResourceVersionDTO getCategoryVersion(ProductCategory category) {
+        return productRepository.getCategoryVersion(category);
+    }
 
-        return ProductDTO.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .description(product.getDescription())
-                .price(product.getPrice())
-                .stock(product.getStock())
-                .category(product.getCategory())
-                .sku(product.getSku())
-                .active(product.getActive())
-                .featured(product.getFeatured())
-                .customizable(product.getCustomizable())
-                .images(product.getImages())
-                .sizes(product.getSizes())
-                .colors(product.getColors())
-                .build();
+    public ResourceVersionDTO getFeaturedVersion() {
+        return productRepository.getFeaturedVersion();
     }
 
-    private Product convertToEntity(ProductDTO productDTO) {
-        return modelMapper.map(productDTO, Product.class);
+    public ResourceVersionDTO getProductVersion(Long id) {
+        return productRepository.getProductVersion(id);
     }
-}
\ No newline at end of file
+}
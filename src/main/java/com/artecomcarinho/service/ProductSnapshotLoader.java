@@ -0,0 +1,62 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.dto.ProductAttributeRowDTO;
+import com.artecomcarinho.event.ProductChangedEvent;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Carga dos índices de catálogo em memória, no mesmo formato dos {@link ProductChangedEvent}:
+ * todos os produtos ativos na subida, ou só os alterados desde um instante, em três consultas.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSnapshotLoader {
+
+    private final ProductRepository productRepository;
+
+    @Transactional(readOnly = true)
+    public List<ProductChangedEvent> loadActive() {
+        Map<Long, List<String>> sizes = group(productRepository.findActiveSizes());
+        Map<Long, List<String>> colors = group(productRepository.findActiveColors());
+
+        return productRepository.findAllByActiveTrue().stream()
+                .map(product -> ProductChangedEvent.of(product,
+                        sizes.getOrDefault(product.getId(), List.of()),
+                        colors.getOrDefault(product.getId(), List.of())))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductChangedEvent> loadChangedSince(LocalDateTime since) {
+        List<Product> products = productRepository.findByUpdatedAtGreaterThanEqual(since);
+        if (products.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = products.stream().map(Product::getId).toList();
+        Map<Long, List<String>> sizes = group(productRepository.findSizesByProductIds(ids));
+        Map<Long, List<String>> colors = group(productRepository.findColorsByProductIds(ids));
+
+        return products.stream()
+                .map(product -> ProductChangedEvent.of(product,
+                        sizes.getOrDefault(product.getId(), List.of()),
+                        colors.getOrDefault(product.getId(), List.of())))
+                .toList();
+    }
+
+    private static Map<Long, List<String>> group(List<ProductAttributeRowDTO> rows) {
+        return rows.stream()
+                .filter(row -> row.value() != null)
+                .collect(Collectors.groupingBy(ProductAttributeRowDTO::productId,
+                        Collectors.mapping(ProductAttributeRowDTO::value, Collectors.toList())));
+    }
+}
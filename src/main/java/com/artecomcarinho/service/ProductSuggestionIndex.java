@@ -0,0 +1,199 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.dto.ProductSuggestionDTO;
+import com.artecomcarinho.event.ProductChangedEvent;
+import com.artecomcarinho.model.Product.ProductCategory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Trie em memória para o autocomplete da vitrine: nomes, SKUs e categorias dos produtos ativos.
+ * <p>
+ * As chaves são normalizadas sem acento e em minúsculas, e cada nome entra também a partir
+ * de cada palavra ("Toalha bordada" responde por "toa" e por "bor"). É carregada uma vez quando
+ * a aplicação sobe e depois só muda produto a produto, pelos {@link ProductChangedEvent} e pelo
+ * {@link ProductIndexRefresher}. Consultas nunca vão ao banco.
+ */
+@Component
+public class ProductSuggestionIndex extends AbstractProductIndex {
+
+    static final int MAX_LIMIT = 20;
+
+    // Limita a profundidade da trie; consultas maiores são cortadas no mesmo tamanho
+    private static final int MAX_KEY_LENGTH = 48;
+
+    private final Node root = new Node();
+    private final Map<Long, List<Entry>> entriesByProduct = new HashMap<>();
+    private final Map<ProductCategory, Integer> activeByCategory = new EnumMap<>(ProductCategory.class);
+
+    public ProductSuggestionIndex(ProductSnapshotLoader snapshotLoader) {
+        super(snapshotLoader);
+    }
+
+    @Override
+    protected String description() {
+        return "Autocomplete de produtos";
+    }
+
+    /**
+     * Até {@code limit} sugestões cujo texto tem alguma palavra começando por {@code query},
+     * em ordem alfabética da chave (as mais curtas primeiro dentro do mesmo prefixo).
+     */
+    public List<ProductSuggestionDTO> suggest(String query, int limit) {
+        String key = fold(query);
+        int max = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        String prefix = key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+
+        return read(() -> {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            Set<ProductSuggestionDTO> found = new LinkedHashSet<>();
+            collect(node, found, max);
+            return new ArrayList<>(found);
+        });
+    }
+
+    private void collect(Node node, Set<ProductSuggestionDTO> found, int max) {
+        for (ProductSuggestionDTO suggestion : node.suggestions) {
+            if (found.size() >= max) {
+                return;
+            }
+            found.add(suggestion);
+        }
+        for (Node child : node.children.values()) {
+            if (found.size() >= max) {
+                return;
+            }
+            collect(child, found, max);
+        }
+    }
+
+    @Override
+    protected void replace(ProductChangedEvent product) {
+        List<Entry> previous = entriesByProduct.remove(product.productId());
+        if (previous != null) {
+            previous.forEach(this::remove);
+        }
+        if (!product.active()) {
+            return;
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        if (product.name() != null) {
+            entries.add(new Entry(new ProductSuggestionDTO(
+                    ProductSuggestionDTO.Type.PRODUCT, product.name(), product.productId(), product.category()), null));
+        }
+        if (product.sku() != null && !product.sku().isBlank()) {
+            entries.add(new Entry(new ProductSuggestionDTO(
+                    ProductSuggestionDTO.Type.SKU, product.sku(), product.productId(), product.category()), null));
+        }
+        if (product.category() != null) {
+            // Marcador: a sugestão da categoria só entra/sai quando o contador passa por zero
+            entries.add(new Entry(null, product.category()));
+        }
+        entries.forEach(this::add);
+        entriesByProduct.put(product.productId(), entries);
+    }
+
+    private void add(Entry entry) {
+        if (entry.category() != null) {
+            if (activeByCategory.merge(entry.category(), 1, Integer::sum) == 1) {
+                keysOf(categorySuggestion(entry.category())).forEach(key -> insert(key, categorySuggestion(entry.category())));
+            }
+            return;
+        }
+        keysOf(entry.suggestion()).forEach(key -> insert(key, entry.suggestion()));
+    }
+
+    private void remove(Entry entry) {
+        if (entry.category() != null) {
+            Integer remaining = activeByCategory.computeIfPresent(entry.category(), (category, count) -> count > 1 ? count - 1 : null);
+            if (remaining == null) {
+                keysOf(categorySuggestion(entry.category())).forEach(key -> delete(root, key, 0, categorySuggestion(entry.category())));
+            }
+            return;
+        }
+        keysOf(entry.suggestion()).forEach(key -> delete(root, key, 0, entry.suggestion()));
+    }
+
+    private void insert(String key, ProductSuggestionDTO suggestion) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        node.suggestions.add(suggestion);
+    }
+
+    // Remove a sugestão e poda os nós que ficaram vazios
+    private boolean delete(Node node, String key, int depth, ProductSuggestionDTO suggestion) {
+        if (depth == key.length()) {
+            node.suggestions.remove(suggestion);
+        } else {
+            Node child = node.children.get(key.charAt(depth));
+            if (child != null && delete(child, key, depth + 1, suggestion)) {
+                node.children.remove(key.charAt(depth));
+            }
+        }
+        return node != root && node.suggestions.isEmpty() && node.children.isEmpty();
+    }
+
+    private static Set<String> keysOf(ProductSuggestionDTO suggestion) {
+        String folded = fold(suggestion.text());
+        Set<String> keys = new LinkedHashSet<>();
+        int start = 0;
+        while (start < folded.length()) {
+            String key = folded.substring(start);
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+            int space = folded.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+        }
+        return keys;
+    }
+
+    private static ProductSuggestionDTO categorySuggestion(ProductCategory category) {
+        String label = category.name().replace('_', ' ').toLowerCase(Locale.ROOT);
+        label = Character.toUpperCase(label.charAt(0)) + label.substring(1);
+        return new ProductSuggestionDTO(ProductSuggestionDTO.Type.CATEGORY, label, null, category);
+    }
+
+    /**
+     * "Bebê  Conforto-Rosa" -> "bebe conforto rosa".
+     */
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutAccents.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new TreeMap<>();
+        private final Set<ProductSuggestionDTO> suggestions = new LinkedHashSet<>();
+    }
+
+    private record Entry(ProductSuggestionDTO suggestion, ProductCategory category) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.dto.ProductionCardEventDTO;
+import com.artecomcarinho.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Distribui as mudanças do quadro de produção para os quadros abertos via SSE.
+ * <p>
+ * Cada assinante tem uma fila limitada, esvaziada por um pool pequeno de threads, de modo
+ * que quem publica nunca espera pela rede. Se a fila de um assinante enche (conexão lenta
+ * ou parada), ele é desconectado: o cliente reconecta e recarrega o quadro.
+ * O cliente deve abrir o stream antes de buscar o quadro para não perder deltas no meio.
+ */
+@Slf4j
+@Component
+public class ProductionBoardEventHub {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders;
+    // Uma vaga por assinante, devolvida quando ele sai da lista
+    private final Semaphore slots;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ProductionBoardEventHub(@Value("${app.production.board.stream.max-subscribers:50}") int maxSubscribers,
+                                   @Value("${app.production.board.stream.queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.production.board.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this(maxSubscribers, queueCapacity, timeoutMillis, Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "production-board-sse");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    ProductionBoardEventHub(int maxSubscribers, int queueCapacity, long timeoutMillis, ExecutorService senders) {
+        this.slots = new Semaphore(Math.max(0, maxSubscribers));
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.timeoutMillis = timeoutMillis;
+        this.senders = senders;
+    }
+
+    public SseEmitter subscribe() {
+        // Reserva a vaga antes de criar o assinante: conferir o tamanho da lista e depois inserir deixaria passar do limite
+        if (!slots.tryAcquire()) {
+            throw new TooManyRequestsException("Limite de conexoes do quadro de producao atingido");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        subscribers.add(subscriber);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> disconnect(subscriber));
+        emitter.onError(error -> disconnect(subscriber));
+
+        enqueue(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    // Só chega aqui depois do commit de quem alterou o card
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(ProductionCardEventDTO event) {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    // Mantém a conexão viva através de proxies que encerram streams ociosos
+    @Scheduled(fixedDelayString = "${app.production.board.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, HEARTBEAT);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        senders.shutdownNow();
+    }
+
+    private void enqueue(Subscriber subscriber, Object message) {
+        if (!subscriber.queue().offer(message)) {
+            if (message != HEARTBEAT) {
+                log.debug("Assinante do quadro de producao lento, desconectando");
+                disconnect(subscriber);
+            }
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object message;
+            while ((message = subscriber.queue().poll()) != null) {
+                send(subscriber.emitter(), message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+        }
+
+        // Mensagem que chegou entre o último poll e a liberação da flag
+        if (!subscriber.queue().isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void send(SseEmitter emitter, Object message) throws IOException {
+        if (message == HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("ping"));
+            return;
+        }
+
+        ProductionCardEventDTO event = (ProductionCardEventDTO) message;
+        emitter.send(SseEmitter.event()
+                .name(event.type().name().toLowerCase())
+                .data(event));
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            subscriber.queue().clear();
+            subscriber.emitter().complete();
+        }
+    }
+
+    // Só quem de fato tirou o assinante da lista devolve a vaga, então ela nunca é devolvida duas vezes
+    private boolean remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            slots.release();
+            return true;
+        }
+        return false;
+    }
+
+    private record Subscriber(SseEmitter emitter, BlockingQueue<Object> queue, AtomicBoolean draining) {
+
+        Subscriber(SseEmitter emitter, BlockingQueue<Object> queue) {
+            this(emitter, queue, new AtomicBoolean());
+        }
+    }
+}
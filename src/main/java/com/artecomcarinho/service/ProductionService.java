@@ -1,6 +1,8 @@
 package com.artecomcarinho.service;
 
 import com.artecomcarinho.dto.*;
+import com.artecomcarinho.event.OrderStatusChangedEvent;
+import com.artecomcarinho.exception.InvalidOperationException;
 import com.artecomcarinho.model.Order;
 import com.artecomcarinho.model.ProductionOrder;
 import com.artecomcarinho.model.enums.ProductionStage;
@@ -8,69 +10,153 @@ import com.artecomcarinho.model.enums.ProductionStatus;
 import com.artecomcarinho.repository.OrderRepository;
 import com.artecomcarinho.repository.ProductionOrderRepository;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
+/**
+ * Quadro de produção. Os cards são criados pelos eventos de pedido (criação e entrada
+ * em IN_PRODUCTION), de modo que carregar o quadro não depende do histórico de pedidos.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class ProductionService {
 
     private final ProductionOrderRepository productionOrderRepository;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int doneColumnLimit;
+
+    public ProductionService(ProductionOrderRepository productionOrderRepository,
+                             OrderRepository orderRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.production.board.done-limit:50}") int doneColumnLimit) {
+        this.productionOrderRepository = productionOrderRepository;
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.doneColumnLimit = Math.max(1, doneColumnLimit);
+    }
 
-    private void ensureProductionForAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-
-        List<ProductionOrder> toCreate = new ArrayList<>();
-
-        for (Order order : orders) {
-            Long id = order.getId();
-            if (id == null) continue;
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean enteredProduction = event.statusChanged() && event.newStatus() == Order.OrderStatus.IN_PRODUCTION;
+        if (!event.isCreation() && !enteredProduction) {
+            return;
+        }
 
-            if (!productionOrderRepository.existsById(id)) {
-                ProductionOrder po = ProductionOrder.builder()
-                        .order(order)
-                        .stage(ProductionStage.BORDADO)
-                        .status(ProductionStatus.PENDING)
-                        .notes(null)
-                        .updatedAt(LocalDateTime.now())
-                        .build();
-                toCreate.add(po);
-            }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (productionOrderRepository.insertDefaultIfMissing(event.orderId(), LocalDateTime.now()) > 0) {
+                    findCard(event.orderId()).ifPresent(card ->
+                            eventPublisher.publishEvent(ProductionCardEventDTO.created(card)));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Outro evento do mesmo pedido criou o card primeiro
+            log.debug("Card de producao do pedido {} ja existe", event.orderId());
         }
+    }
 
-        if (!toCreate.isEmpty()) {
-            productionOrderRepository.saveAll(toCreate);
+    /**
+     * Cria os cards dos pedidos antigos, anteriores à criação por evento.
+     * Depois da primeira execução o anti-join não encontra nada para inserir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingCards() {
+        Integer created = transactionTemplate.execute(status ->
+                productionOrderRepository.insertMissingDefaults(LocalDateTime.now()));
+        if (created != null && created > 0) {
+            log.info("Cards de producao criados para {} pedidos sem card", created);
         }
     }
 
+    /**
+     * Monta o quadro com três consultas fixas: cards em andamento, os últimos concluídos
+     * (limitados por app.production.board.done-limit) e os itens de todos eles.
+     * O restante da coluna CONCLUIDO é paginado em {@link #getColumn}.
+     */
+    @Transactional(readOnly = true)
     public ProductionBoardDTO getBoard() {
-        ensureProductionForAllOrders();
+        List<ProductionCardDTO> cards = new ArrayList<>(
+                productionOrderRepository.findCardsExcludingStage(ProductionStage.CONCLUIDO));
+        cards.addAll(productionOrderRepository.findCardsByStage(ProductionStage.CONCLUIDO, Limit.of(doneColumnLimit)));
+        attachItems(cards);
 
         Map<ProductionStage, List<ProductionCardDTO>> map = new EnumMap<>(ProductionStage.class);
-
         for (ProductionStage stage : ProductionStage.values()) {
-            List<ProductionOrder> list = productionOrderRepository.findByStageOrderByUpdatedAtDesc(stage);
-            List<ProductionCardDTO> cards = list.stream().map(this::toCard).toList();
-            map.put(stage, cards);
+            map.put(stage, new ArrayList<>());
         }
+        cards.forEach(card -> map.get(card.getStage()).add(card));
 
         return new ProductionBoardDTO(map);
     }
 
+    /**
+     * Validador do quadro para o GET condicional: qualquer card criado ou alterado muda
+     * a contagem ou o maior updatedAt. Os dados do pedido exibidos no card (cliente,
+     * itens) não mudam depois da criação do pedido.
+     */
+    public ResourceVersionDTO getBoardVersion() {
+        return productionOrderRepository.getBoardVersion();
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductionCardDTO> getColumn(ProductionStage stage, Pageable pageable) {
+        Page<ProductionCardDTO> page = productionOrderRepository.findCardPageByStage(stage, pageable);
+        attachItems(page.getContent());
+        return page;
+    }
+
+    private Optional<ProductionCardDTO> findCard(Long orderId) {
+        List<ProductionCardDTO> cards = productionOrderRepository.findCardsByOrderIds(List.of(orderId));
+        attachItems(cards);
+        return cards.stream().findFirst();
+    }
+
+    private void attachItems(List<ProductionCardDTO> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
 
+        Map<Long, ProductionCardDTO> byOrderId = new HashMap<>();
+        cards.forEach(card -> byOrderId.put(card.getOrderId(), card));
+
+        productionOrderRepository.findCardItems(byOrderId.keySet())
+                .forEach(row -> byOrderId.get(row.orderId()).getItems().add(row.toItem()));
+    }
+
+
+    @Transactional
     public ProductionCardDTO ensureAndGet(Long orderId) {
         ProductionOrder po = productionOrderRepository.findById(orderId)
                 .orElseGet(() -> createDefault(orderId));
         return toCard(po);
     }
 
+    @Transactional
     public ProductionCardDTO update(Long orderId, UpdateProductionDTO dto) {
         ProductionOrder po = productionOrderRepository.findById(orderId)
                 .orElseGet(() -> createDefault(orderId));
+        ProductionStage previousStage = po.getStage();
 
         if (dto.getStage() != null) po.setStage(dto.getStage());
         if (dto.getStatus() != null) po.setStatus(dto.getStatus());
@@ -79,29 +165,117 @@ public class ProductionService {
         po.setUpdatedAt(LocalDateTime.now());
         productionOrderRepository.save(po);
 
-        return toCard(po);
+        return publishChange(po, previousStage);
     }
 
+    @Transactional
     public ProductionCardDTO moveNext(Long orderId) {
         ProductionOrder po = productionOrderRepository.findById(orderId)
                 .orElseGet(() -> createDefault(orderId));
+        ProductionStage previousStage = po.getStage();
 
         po.setStage(nextStage(po.getStage()));
         po.setUpdatedAt(LocalDateTime.now());
         productionOrderRepository.save(po);
 
-        return toCard(po);
+        return publishChange(po, previousStage);
     }
 
+    @Transactional
     public ProductionCardDTO movePrev(Long orderId) {
         ProductionOrder po = productionOrderRepository.findById(orderId)
                 .orElseGet(() -> createDefault(orderId));
+        ProductionStage previousStage = po.getStage();
 
         po.setStage(prevStage(po.getStage()));
         po.setUpdatedAt(LocalDateTime.now());
         productionOrderRepository.save(po);
 
-        return toCard(po);
+        return publishChange(po, previousStage);
+    }
+
+    /**
+     * Aplica estágio e/ou status a vários cards com um único UPDATE e devolve os cards
+     * encontrados (uma projeção) e o resultado de cada id recebido, na ordem do pedido.
+     * Cards que já estavam no destino não são alterados nem geram evento.
+     */
+    @Transactional
+    public BulkProductionResultDTO bulkUpdate(BulkProductionUpdateDTO dto) {
+        if (dto.getStage() == null && dto.getStatus() == null) {
+            throw new InvalidOperationException("Informe o estagio ou o status de destino");
+        }
+
+        Set<Long> validIds = new LinkedHashSet<>();
+        for (Long orderId : dto.getOrderIds()) {
+            if (orderId != null && orderId > 0) {
+                validIds.add(orderId);
+            }
+        }
+
+        Map<Long, ProductionCardDTO> cardsById = new HashMap<>();
+        if (!validIds.isEmpty()) {
+            productionOrderRepository.findCardsByOrderIds(validIds)
+                    .forEach(card -> cardsById.put(card.getOrderId(), card));
+        }
+
+        Map<Long, ProductionStage> previousStages = new HashMap<>();
+        for (ProductionCardDTO card : cardsById.values()) {
+            boolean stageChanges = dto.getStage() != null && dto.getStage() != card.getStage();
+            boolean statusChanges = dto.getStatus() != null && dto.getStatus() != card.getStatus();
+            if (stageChanges || statusChanges) {
+                previousStages.put(card.getOrderId(), card.getStage());
+            }
+        }
+
+        if (!previousStages.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            productionOrderRepository.bulkUpdate(previousStages.keySet(), dto.getStage(), dto.getStatus(), now);
+            for (Long orderId : previousStages.keySet()) {
+                ProductionCardDTO card = cardsById.get(orderId);
+                if (dto.getStage() != null) {
+                    card.setStage(dto.getStage());
+                }
+                if (dto.getStatus() != null) {
+                    card.setStatus(dto.getStatus());
+                }
+                card.setUpdatedAt(now);
+            }
+        }
+
+        List<ProductionCardDTO> cards = new ArrayList<>();
+        List<BulkProductionResultDTO.Result> results = new ArrayList<>();
+        Set<Long> reported = new HashSet<>();
+        for (Long orderId : dto.getOrderIds()) {
+            if (!reported.add(orderId)) {
+                continue;
+            }
+            ProductionCardDTO card = cardsById.get(orderId);
+            BulkProductionResultDTO.Outcome outcome;
+            if (!validIds.contains(orderId)) {
+                outcome = BulkProductionResultDTO.Outcome.INVALID;
+            } else if (card == null) {
+                outcome = BulkProductionResultDTO.Outcome.NOT_FOUND;
+            } else {
+                cards.add(card);
+                outcome = previousStages.containsKey(orderId)
+                        ? BulkProductionResultDTO.Outcome.UPDATED
+                        : BulkProductionResultDTO.Outcome.UNCHANGED;
+            }
+            results.add(new BulkProductionResultDTO.Result(orderId, outcome));
+        }
+        attachItems(cards);
+
+        previousStages.forEach((orderId, previousStage) ->
+                eventPublisher.publishEvent(ProductionCardEventDTO.changed(previousStage, cardsById.get(orderId))));
+
+        return new BulkProductionResultDTO(cards, results);
+    }
+
+    // O stream só recebe o delta depois do commit (ProductionBoardEventHub)
+    private ProductionCardDTO publishChange(ProductionOrder po, ProductionStage previousStage) {
+        ProductionCardDTO card = toCard(po);
+        eventPublisher.publishEvent(ProductionCardEventDTO.changed(previousStage, card));
+        return card;
     }
 
     private ProductionOrder createDefault(Long orderId) {
@@ -116,7 +290,9 @@ public class ProductionService {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        return productionOrderRepository.save(po);
+        ProductionOrder saved = productionOrderRepository.save(po);
+        eventPublisher.publishEvent(ProductionCardEventDTO.created(toCard(saved)));
+        return saved;
     }
 
     private ProductionStage nextStage(ProductionStage current) {
@@ -142,43 +318,25 @@ public class ProductionService {
     private ProductionCardDTO toCard(ProductionOrder po) {
         Order o = po.getOrder();
 
-        String customerName =
-                (o.getCustomer() != null && o.getCustomer().getName() != null)
-                        ? o.getCustomer().getName()
-                        : "Cliente";
-
-
-        String orderNumber =
-                (o.getOrderNumber() != null)
-                        ? o.getOrderNumber()
-                        : "#" + o.getId();
-
-        List<ProductionCardItemDTO> items = new ArrayList<>();
-        if (o.getItems() != null) {
-            o.getItems().forEach(it -> {
-                String name =
-                        (it.getProduct() != null && it.getProduct().getName() != null)
-                                ? it.getProduct().getName()
-                                : "Item";
-
-                Integer qty = (it.getQuantity() != null)
-                        ? it.getQuantity()
-                        : 1;
-
-                items.add(new ProductionCardItemDTO(name, qty));
-            });
-        }
-
-        return new ProductionCardDTO(
+        ProductionCardDTO card = new ProductionCardDTO(
                 o.getId(),
-                orderNumber,
-                customerName,
+                o.getOrderNumber(),
+                o.getCustomer() != null ? o.getCustomer().getName() : null,
                 po.getStage(),
                 po.getStatus(),
                 po.getNotes(),
                 po.getUpdatedAt(),
-                o.getExpectedDeliveryDate(),
-                items
+                o.getExpectedDeliveryDate()
         );
+
+        if (o.getItems() != null) {
+            o.getItems().forEach(it -> card.getItems().add(new ProductionCardItemRowDTO(
+                    o.getId(),
+                    it.getProduct() != null ? it.getProduct().getName() : null,
+                    it.getQuantity()
+            ).toItem()));
+        }
+
+        return card;
     }
 }
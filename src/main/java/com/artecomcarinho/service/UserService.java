@@ -1,11 +1,15 @@
 package com.artecomcarinho.service;
 
 import com.artecomcarinho.dto.UserDTO;
+import com.artecomcarinho.event.UserChangedEvent;
 import com.artecomcarinho.exception.DuplicateResourceException;
 import com.artecomcarinho.exception.ResourceNotFoundException;
+import com.artecomcarinho.mapper.UserMapper;
 import com.artecomcarinho.model.User;
 import com.artecomcarinho.repository.UserRepository;
+import com.artecomcarinho.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,24 +24,27 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserMapper userMapper;
+    private final PrincipalCache principalCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll()
                 .stream()
-                .map(this::convertToDTO)
+                .map(userMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario nao encontrado com ID: " + id));
-        return convertToDTO(user);
+        return userMapper.toDTO(user);
     }
 
     public UserDTO getUserByEmail(String email) {
         User user = userRepository.findByEmailIgnoreCase(normalizeEmail(email))
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario nao encontrado com email: " + email));
-        return convertToDTO(user);
+        return userMapper.toDTO(user);
     }
 
     @Transactional
@@ -58,7 +65,7 @@ public class UserService {
                 .build();
 
         User savedUser = userRepository.save(user);
-        return convertToDTO(savedUser);
+        return userMapper.toDTO(savedUser);
     }
 
     @Transactional
@@ -73,17 +80,25 @@ public class UserService {
             throw new DuplicateResourceException("Email ja cadastrado: " + userDTO.getEmail());
         }
 
+        principalCache.evict(existingUser);
+        boolean passwordChanged = userDTO.getPassword() != null && !userDTO.getPassword().isEmpty();
+        boolean emailChanged = !normalizedEmail.equalsIgnoreCase(existingUser.getEmail());
+        if (passwordChanged || emailChanged || existingUser.getRole() != userDTO.getRole()) {
+            existingUser.revokeTokens();
+        }
+
         existingUser.setName(userDTO.getName());
         existingUser.setEmail(normalizedEmail);
         existingUser.setPhone(userDTO.getPhone());
         existingUser.setRole(userDTO.getRole());
 
-        if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
+        if (passwordChanged) {
             existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         }
 
         User updatedUser = userRepository.save(existingUser);
-        return convertToDTO(updatedUser);
+        eventPublisher.publishEvent(UserChangedEvent.of(updatedUser));
+        return userMapper.toDTO(updatedUser);
     }
 
     @Transactional
@@ -91,19 +106,11 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario nao encontrado com ID: " + id));
 
+        principalCache.evict(user);
         user.setActive(false);
+        user.revokeTokens();
         userRepository.save(user);
-    }
-
-    private UserDTO convertToDTO(User user) {
-        return UserDTO.builder()
-                .id(user.getId())
-                .name(user.getName())
-                .email(user.getEmail())
-                .phone(user.getPhone())
-                .role(user.getRole())
-                .active(user.getActive())
-                .build();
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
     }
 
     private String normalizeEmail(String email) {
@@ -0,0 +1,170 @@
+package com.artecomcarinho.security;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upsert do {@link JdbcRateLimitStore} contra um PostgreSQL de verdade; sem Docker, é ignorado.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class JdbcRateLimitStorePostgresTest {
+
+    private static final long WINDOW = Duration.ofMinutes(15).toNanos();
+    private static final long INTERVAL = WINDOW / 5;
+    private static final String NOW_MICROS = "(EXTRACT(EPOCH FROM statement_timestamp()) * 1000000)::bigint";
+
+    @Container
+    private static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    // Dois nós, cada um com seu pool, apontando para o mesmo banco
+    private static HikariDataSource nodeA;
+    private static HikariDataSource nodeB;
+    private static JdbcRateLimitStore storeA;
+    private static JdbcRateLimitStore storeB;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUpStores() {
+        nodeA = dataSource();
+        nodeB = dataSource();
+        storeA = new JdbcRateLimitStore(nodeA);
+        storeB = new JdbcRateLimitStore(nodeB);
+        storeA.createTable();
+        storeB.createTable();
+        jdbcTemplate = new JdbcTemplate(nodeA);
+    }
+
+    @AfterAll
+    static void closeDataSources() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @BeforeEach
+    void clearBuckets() {
+        jdbcTemplate.execute("TRUNCATE rate_limit_buckets");
+    }
+
+    @Test
+    void firstAttemptInsertsKeyOneIntervalAhead() {
+        assertThat(storeA.tryAcquire("auth:login", "10.0.0.1", 1, INTERVAL, WINDOW)).isTrue();
+
+        long ahead = microsAhead("auth:login", "10.0.0.1");
+        assertThat(ahead).isBetween(TimeUnit.NANOSECONDS.toMicros(INTERVAL) - 5_000_000L,
+                TimeUnit.NANOSECONDS.toMicros(INTERVAL));
+    }
+
+    @Test
+    void acceptsWithinWindowAndRejectsBeyondIt() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(storeA.tryAcquire("auth:login", "10.0.0.1", 1, INTERVAL, WINDOW)).isTrue();
+        }
+        long tat = tat("auth:login", "10.0.0.1");
+
+        assertThat(storeA.tryAcquire("auth:login", "10.0.0.1", 1, INTERVAL, WINDOW)).isFalse();
+        assertThat(storeB.tryAcquire("auth:login", "10.0.0.1", 1, INTERVAL, WINDOW)).isFalse();
+
+        // Recusas não consomem; outras chaves e buckets não são afetados
+        assertThat(tat("auth:login", "10.0.0.1")).isEqualTo(tat);
+        assertThat(storeA.tryAcquire("auth:login", "10.0.0.2", 1, INTERVAL, WINDOW)).isTrue();
+        assertThat(storeA.tryAcquire("auth:register", "10.0.0.1", 1, INTERVAL, WINDOW)).isTrue();
+    }
+
+    @Test
+    void decidesByTatRelativeToDatabaseClock() {
+        long windowMicros = TimeUnit.NANOSECONDS.toMicros(WINDOW);
+        long intervalMicros = TimeUnit.NANOSECONDS.toMicros(INTERVAL);
+        storeA.tryAcquire("auth:login", "10.0.0.1", 1, INTERVAL, WINDOW);
+
+        // tat - now + custo > janela: recusa
+        setMicrosAhead("auth:login", "10.0.0.1", windowMicros - intervalMicros + 60_000_000L);
+        assertThat(storeA.tryAcquire("auth:login", "10.0.0.1", 1, INTERVAL, WINDOW)).isFalse();
+
+        // Cabe com folga: aceita e avança um intervalo
+        setMicrosAhead("auth:login", "10.0.0.1", windowMicros - intervalMicros - 60_000_000L);
+        assertThat(storeA.tryAcquire("auth:login", "10.0.0.1", 1, INTERVAL, WINDOW)).isTrue();
+        assertThat(microsAhead("auth:login", "10.0.0.1")).isGreaterThan(windowMicros - 70_000_000L);
+
+        // TAT no passado equivale a chave nova, e a limpeza remove a linha
+        setMicrosAhead("auth:login", "10.0.0.1", -windowMicros);
+        storeA.deleteIdleKeys();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM rate_limit_buckets", Long.class)).isZero();
+        assertThat(storeA.tryAcquire("auth:login", "10.0.0.1", 1, INTERVAL, WINDOW)).isTrue();
+    }
+
+    @Test
+    void concurrentAttemptsOnTwoNodesNeverExceedLimit() throws Exception {
+        long window = Duration.ofHours(1).toNanos();
+        long interval = window / 50;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            JdbcRateLimitStore store = t % 2 == 0 ? storeA : storeB;
+            results.add(executor.submit(() -> {
+                start.await();
+                int allowed = 0;
+                for (int i = 0; i < 25; i++) {
+                    if (store.tryAcquire("public:order", "10.0.0.1", 1, interval, window)) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            }));
+        }
+        start.countDown();
+
+        int allowed = 0;
+        for (Future<Integer> result : results) {
+            allowed += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(allowed).isEqualTo(50);
+    }
+
+    private static HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(4);
+        return dataSource;
+    }
+
+    private long tat(String bucketName, String key) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tat_micros FROM rate_limit_buckets WHERE bucket_name = ? AND bucket_key = ?",
+                Long.class, bucketName, key);
+    }
+
+    private long microsAhead(String bucketName, String key) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tat_micros - " + NOW_MICROS + " FROM rate_limit_buckets WHERE bucket_name = ? AND bucket_key = ?",
+                Long.class, bucketName, key);
+    }
+
+    private void setMicrosAhead(String bucketName, String key, long micros) {
+        jdbcTemplate.update(
+                "UPDATE rate_limit_buckets SET tat_micros = " + NOW_MICROS + " + ? WHERE bucket_name = ? AND bucket_key = ?",
+                micros, bucketName, key);
+    }
+}
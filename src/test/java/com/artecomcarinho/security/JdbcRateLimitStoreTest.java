@@ -0,0 +1,39 @@
+package com.artecomcarinho.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JdbcRateLimitStoreTest {
+
+    private static final long WINDOW = Duration.ofMinutes(15).toNanos();
+
+    @Test
+    void fallsBackToNodeLimitWhenDatabaseFails() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("banco fora do ar"));
+        JdbcRateLimitStore store = new JdbcRateLimitStore(dataSource);
+
+        assertThat(store.tryAcquire("auth:login", "10.0.0.1", 1, WINDOW / 2, WINDOW)).isTrue();
+        assertThat(store.tryAcquire("auth:login", "10.0.0.1", 1, WINDOW / 2, WINDOW)).isTrue();
+        assertThat(store.tryAcquire("auth:login", "10.0.0.1", 1, WINDOW / 2, WINDOW)).isFalse();
+        assertThat(store.tryAcquire("auth:login", "10.0.0.2", 1, WINDOW / 2, WINDOW)).isTrue();
+
+        store.deleteIdleKeys();
+    }
+
+    @Test
+    void refusesDatabasesOtherThanPostgres() {
+        JdbcRateLimitStore store = new JdbcRateLimitStore(new DriverManagerDataSource("jdbc:h2:mem:rate-limit"));
+
+        assertThatThrownBy(store::createTable).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,136 @@
+package com.artecomcarinho.security;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.dto.UserDTO;
+import com.artecomcarinho.mapper.UserMapperImpl;
+import com.artecomcarinho.model.User;
+import com.artecomcarinho.repository.UserRepository;
+import com.artecomcarinho.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PrincipalCache.class, UserService.class, UserMapperImpl.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PrincipalCacheTest {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.PRINCIPALS).clear();
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .name("Maria")
+                .email("maria@example.com")
+                .phone("11999998888")
+                .password("hash")
+                .role(User.Role.CUSTOMER)
+                .active(true)
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void secondRequestIsServedWithoutQuery() {
+        assertThat(principalCache.resolve("Maria@Example.com", null, 0)).isNotNull();
+
+        statistics.clear();
+        User cached = principalCache.resolve("maria@example.com", user.getId(), 0);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(cached.getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void passwordChangeRevokesCachedPrincipal() {
+        assertThat(principalCache.resolve("maria@example.com", user.getId(), 0)).isNotNull();
+        when(passwordEncoder.encode(anyString())).thenReturn("novo-hash");
+
+        userService.updateUser(user.getId(), UserDTO.builder()
+                .name("Maria")
+                .email("maria@example.com")
+                .phone("11999998888")
+                .role(User.Role.CUSTOMER)
+                .password("nova-senha")
+                .build());
+
+        assertThat(principalCache.resolve("maria@example.com", user.getId(), 0)).isNull();
+        assertThat(principalCache.resolve("maria@example.com", user.getId(), 1)).isNotNull();
+    }
+
+    @Test
+    void deactivatedUserIsNotResolved() {
+        assertThat(principalCache.resolve("maria@example.com", user.getId(), 0)).isNotNull();
+
+        userService.deleteUser(user.getId());
+
+        assertThat(principalCache.resolve("maria@example.com", user.getId(), 0)).isNull();
+        assertThat(principalCache.resolve("maria@example.com", user.getId(), 1)).isNull();
+    }
+
+    @Test
+    void emailChangeRevokesTokensIssuedForOldEmail() {
+        userService.updateUser(user.getId(), UserDTO.builder()
+                .name("Maria")
+                .email("maria.nova@example.com")
+                .phone("11999998888")
+                .role(User.Role.CUSTOMER)
+                .build());
+
+        assertThat(principalCache.resolve("maria.nova@example.com", user.getId(), 0)).isNull();
+        assertThat(principalCache.resolve("maria.nova@example.com", user.getId(), 1)).isNotNull();
+    }
+
+    @Test
+    void tokenOfPreviousOwnerDoesNotResolveNewAccountWithSameEmail() {
+        User newOwner = userRepository.save(User.builder()
+                .name("Outra Maria")
+                .email("maria2@example.com")
+                .phone("11999997777")
+                .password("hash")
+                .role(User.Role.CUSTOMER)
+                .active(true)
+                .build());
+
+        assertThat(principalCache.resolve("maria2@example.com", user.getId(), 0)).isNull();
+        assertThat(principalCache.resolve("maria2@example.com", newOwner.getId(), 0)).isNotNull();
+    }
+}
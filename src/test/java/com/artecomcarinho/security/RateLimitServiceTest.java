@@ -0,0 +1,144 @@
+package com.artecomcarinho.security;
+
+import com.artecomcarinho.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitServiceTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = new RateLimitService(new InMemoryRateLimitStore(now::get));
+        ReflectionTestUtils.setField(rateLimitService, "enabled", true);
+    }
+
+    @Test
+    void allowsBurstThenRefusesUntilWindowHasPassed() {
+        for (int i = 0; i < 5; i++) {
+            rateLimitService.check("auth:login", "10.0.0.1:Maria@Example.com", 5, Duration.ofMinutes(15));
+        }
+        assertRejected("10.0.0.1:maria@example.com");
+
+        now.addAndGet(Duration.ofMinutes(3).toNanos());
+        assertRejected("10.0.0.1:maria@example.com");
+        now.addAndGet(Duration.ofMinutes(12).minusSeconds(1).toNanos());
+        assertRejected("10.0.0.1:maria@example.com");
+
+        // Recusas não consomem: uma janela depois da primeira entra exatamente mais uma
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        rateLimitService.check("auth:login", "10.0.0.1:maria@example.com", 5, Duration.ofMinutes(15));
+        assertRejected("10.0.0.1:maria@example.com");
+
+        rateLimitService.check("auth:login", "10.0.0.2:maria@example.com", 5, Duration.ofMinutes(15));
+    }
+
+    @Test
+    void attemptsSpreadAcrossOneWindowNeverExceedLimit() {
+        // 6 tentativas dentro de 15 minutos: a sexta é recusada
+        for (int i = 0; i < 5; i++) {
+            rateLimitService.check("auth:login", "10.0.0.1:maria@example.com", 5, Duration.ofMinutes(15));
+            now.addAndGet(Duration.ofMinutes(2).plusSeconds(59).toNanos());
+        }
+        assertRejected("10.0.0.1:maria@example.com");
+
+        // Uma tentativa por minuto durante 3 horas: nenhuma janela de 15 minutos passa de 5
+        List<Long> accepted = new ArrayList<>();
+        for (int minute = 0; minute < 180; minute++) {
+            try {
+                rateLimitService.check("auth:login", "10.0.0.2:maria@example.com", 5, Duration.ofMinutes(15));
+                accepted.add(now.get());
+            } catch (TooManyRequestsException e) {
+                // esperado
+            }
+            now.addAndGet(Duration.ofMinutes(1).toNanos());
+        }
+        long window = Duration.ofMinutes(15).toNanos();
+        for (long windowStart : accepted) {
+            assertThat(accepted.stream().filter(at -> at >= windowStart && at - windowStart < window)).hasSizeLessThanOrEqualTo(5);
+        }
+    }
+
+    @Test
+    void concurrentAttemptsNeverExceedLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int allowed = 0;
+                for (int i = 0; i < 100; i++) {
+                    try {
+                        rateLimitService.check("public:order", "10.0.0.1", 50, Duration.ofHours(1));
+                        allowed++;
+                    } catch (TooManyRequestsException e) {
+                        // esperado depois das 50 primeiras
+                    }
+                }
+                return allowed;
+            }));
+        }
+
+        start.countDown();
+        int allowed = 0;
+        for (Future<Integer> result : results) {
+            allowed += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(allowed).isEqualTo(50);
+    }
+
+    @Test
+    void sharedStoreIsCalledOncePerBatchAndStillEnforcesLimit() {
+        AtomicInteger storeCalls = new AtomicInteger();
+        RateLimitStore shared = new InMemoryRateLimitStore(now::get) {
+            @Override
+            public boolean tryAcquire(String bucketName, String key, int permits, long intervalNanos, long windowNanos) {
+                storeCalls.incrementAndGet();
+                return super.tryAcquire(bucketName, key, permits, intervalNanos, windowNanos);
+            }
+
+            @Override
+            public boolean isShared() {
+                return true;
+            }
+        };
+        rateLimitService = new RateLimitService(shared);
+        ReflectionTestUtils.setField(rateLimitService, "enabled", true);
+        ReflectionTestUtils.setField(rateLimitService, "clock", (LongSupplier) now::get);
+
+        for (int i = 0; i < 60; i++) {
+            rateLimitService.check("public:shipping", "10.0.0.1:01310100", 60, Duration.ofHours(1));
+        }
+        assertThatThrownBy(() -> rateLimitService.check("public:shipping", "10.0.0.1:01310100", 60, Duration.ofHours(1)))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        // 10 lotes de 6; a recusa tenta o lote e depois uma tentativa avulsa
+        assertThat(storeCalls.get()).isEqualTo(12);
+    }
+
+    private void assertRejected(String key) {
+        assertThatThrownBy(() -> rateLimitService.check("auth:login", key, 5, Duration.ofMinutes(15)))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.artecomcarinho.security;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.mapper.UserMapperImpl;
+import com.artecomcarinho.model.User;
+import com.artecomcarinho.repository.UserRepository;
+import com.artecomcarinho.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.security.jwt.stateless.enabled=true"
+})
+@Import({TokenVersionRegistry.class, UserService.class, PrincipalCache.class, UserMapperImpl.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenVersionRegistryTest {
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.PRINCIPALS).clear();
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .name("Maria")
+                .email("maria@example.com")
+                .phone("11999998888")
+                .password("hash")
+                .role(User.Role.CUSTOMER)
+                .active(true)
+                .build());
+        tokenVersionRegistry.load();
+    }
+
+    @Test
+    void deactivationRevokesTokensOnThisNodeAfterCommit() {
+        assertThat(tokenVersionRegistry.isCurrent(token(0))).isTrue();
+
+        userService.deleteUser(user.getId());
+
+        assertThat(tokenVersionRegistry.isCurrent(token(0))).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent(token(1))).isFalse();
+    }
+
+    @Test
+    void refreshPicksUpChangesMadeByOtherNodes() {
+        User changed = userRepository.findById(user.getId()).orElseThrow();
+        changed.revokeTokens();
+        userRepository.save(changed);
+        assertThat(tokenVersionRegistry.isCurrent(token(0))).isTrue();
+
+        tokenVersionRegistry.refresh();
+
+        assertThat(tokenVersionRegistry.isCurrent(token(0))).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent(token(1))).isTrue();
+    }
+
+    @Test
+    void unknownUserIsCheckedAgainstDatabase() {
+        User changed = userRepository.findById(user.getId()).orElseThrow();
+        changed.revokeTokens();
+        userRepository.save(changed);
+
+        // Sem carga inicial: o mapa não conhece ninguém
+        TokenVersionRegistry empty = new TokenVersionRegistry(userRepository, principalCache, true, Duration.ofMinutes(1));
+
+        assertThat(empty.isCurrent(token(0))).isFalse();
+        assertThat(empty.isCurrent(token(1))).isTrue();
+    }
+
+    private JwtPrincipal token(long tokenVersion) {
+        return new JwtPrincipal(user.getEmail(), user.getId(), User.Role.CUSTOMER, tokenVersion);
+    }
+}
@@ -0,0 +1,226 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.controller.MercadoPagoWebhookController;
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.mapper.OrderMapperImpl;
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.DailySalesRollup;
+import com.artecomcarinho.model.Order;
+import com.artecomcarinho.model.Payment;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.model.enums.PaymentProvider;
+import com.artecomcarinho.model.enums.PaymentStatus;
+import com.artecomcarinho.repository.CustomerRepository;
+import com.artecomcarinho.repository.DailySalesRollupRepository;
+import com.artecomcarinho.repository.OrderRepository;
+import com.artecomcarinho.repository.PaymentRepository;
+import com.artecomcarinho.repository.ProductRepository;
+import com.artecomcarinho.security.AccessControlService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({DailySalesRollupService.class, OrderService.class, OrderMapperImpl.class, OrderNumberAllocator.class,
+        AccessControlService.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailySalesRollupServiceTest {
+
+    @Autowired
+    private DailySalesRollupService rollupService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DailySalesRollupRepository rollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    private Customer customer;
+    private Product toalha;
+    private Product manta;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        orderRepository.deleteAll();
+        rollupRepository.deleteAll();
+        // Como na subida da aplicação
+        rollupService.rebuildIfEmpty();
+
+        customer = customerRepository.save(Customer.builder().name("Maria").email("maria@example.com").build());
+        toalha = productRepository.save(product("Toalha bordada", "59.90"));
+        manta = productRepository.save(product("Manta", "120.00"));
+    }
+
+    @Test
+    void deltasMatchRebuildFromScratch() {
+        Long shipped = orderService.createOrder(order(null, toalha, 2, manta, 1)).getId();
+        Long cancelled = orderService.createOrder(order(null, toalha, 1, null, 0)).getId();
+        Long paid = orderService.createOrder(order(LocalDateTime.now().minusDays(3), manta, 3, null, 0)).getId();
+        orderService.createOrder(order(null, toalha, 1, manta, 1));
+
+        orderService.updateOrderStatus(shipped, Order.OrderStatus.SHIPPED);
+        orderService.cancelOrder(cancelled);
+        webhookApproves(paid);
+
+        Set<Row> fromDeltas = rows();
+        // Dia como o H2 devolve: o fuso padrão da aplicação muda depois que o banco de teste sobe
+        LocalDate today = fromDeltas.stream()
+                .filter(row -> row.status() == Order.OrderStatus.SHIPPED)
+                .findFirst().orElseThrow().day();
+        assertThat(fromDeltas).contains(
+                new Row(today, Order.OrderStatus.SHIPPED, DailySalesRollup.ORDER_TOTALS, 1, 0, "239.8"),
+                new Row(today, Order.OrderStatus.CANCELLED, toalha.getId(), 0, 1, "59.9"),
+                new Row(today.minusDays(3), Order.OrderStatus.IN_PRODUCTION, manta.getId(), 0, 3, "360"));
+
+        rollupService.rebuild();
+
+        assertThat(rows()).isEqualTo(fromDeltas);
+    }
+
+    @Test
+    void orderCommittedBeforeRebuildIsNotCountedTwice() {
+        // O rebuild roda entre o commit do pedido e o delta dele
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rollupService.rebuild();
+                }
+            });
+            orderService.createOrder(order(null, toalha, 2, null, 0));
+        });
+
+        assertThat(rows())
+                .extracting(Row::status, Row::productId, Row::orders, Row::quantity, Row::revenue)
+                .containsExactlyInAnyOrder(
+                        tuple(Order.OrderStatus.PENDING, DailySalesRollup.ORDER_TOTALS, 1L, 0L, "119.8"),
+                        tuple(Order.OrderStatus.PENDING, toalha.getId(), 0L, 2L, "119.8"));
+    }
+
+    // Como o webhook do Mercado Pago roda na aplicação: sem transação, com a sessão aberta pelo open-in-view
+    private void webhookApproves(Long orderId) {
+        paymentRepository.save(Payment.builder()
+                .order(orderRepository.findById(orderId).orElseThrow())
+                .provider(PaymentProvider.MERCADO_PAGO)
+                .status(PaymentStatus.PENDING)
+                .externalPaymentId("pay-" + orderId)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        MercadoPagoWebhookController webhook =
+                new MercadoPagoWebhookController(orderRepository, paymentRepository, eventPublisher);
+        ReflectionTestUtils.setField(webhook, "baseUrl", "https://mp.test");
+        ReflectionTestUtils.setField(webhook, "accessToken", "token");
+        ReflectionTestUtils.setField(webhook, "requireWebhookSignature", false);
+        MockRestServiceServer server = MockRestServiceServer
+                .bindTo((RestTemplate) ReflectionTestUtils.getField(webhook, "restTemplate"))
+                .build();
+        server.expect(requestTo("https://mp.test/v1/payments/pay-" + orderId))
+                .andRespond(withSuccess("{\"status\":\"approved\"}", MediaType.APPLICATION_JSON));
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            webhook.webhook(null, null, Map.of("data", Map.of("id", "pay-" + orderId)));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+        server.verify();
+    }
+
+    // Deltas deixam linhas zeradas que o rebuild não cria
+    private Set<Row> rows() {
+        return rollupRepository.findAll().stream()
+                .filter(r -> r.getOrderCount() != 0 || r.getQuantity() != 0 || r.getRevenue().signum() != 0)
+                .map(r -> new Row(r.getSalesDate(), r.getStatus(), r.getProductId(), r.getOrderCount(),
+                        r.getQuantity(), r.getRevenue().stripTrailingZeros().toPlainString()))
+                .collect(Collectors.toSet());
+    }
+
+    private OrderDTO order(LocalDateTime orderDate, Product first, int firstQuantity, Product second, int secondQuantity) {
+        OrderDTO dto = new OrderDTO();
+        dto.setCustomerId(customer.getId());
+        dto.setOrderDate(orderDate);
+        dto.getItems().add(item(first, firstQuantity));
+        if (second != null) {
+            dto.getItems().add(item(second, secondQuantity));
+        }
+        return dto;
+    }
+
+    private static OrderDTO.OrderItemDTO item(Product product, int quantity) {
+        OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static Product product(String name, String price) {
+        return Product.builder()
+                .name(name)
+                .category(Product.ProductCategory.KITS)
+                .price(new BigDecimal(price))
+                .stock(100)
+                .build();
+    }
+
+    private record Row(LocalDate day, Order.OrderStatus status, Long productId, long orders, long quantity,
+                       String revenue) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.mapper.OrderMapperImpl;
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.Order;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.repository.CustomerRepository;
+import com.artecomcarinho.repository.OrderNumberCounterRepository;
+import com.artecomcarinho.repository.OrderRepository;
+import com.artecomcarinho.repository.ProductRepository;
+import com.artecomcarinho.security.AccessControlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.orders.number-block-size=5"
+})
+@Import({OrderNumberAllocator.class, OrderService.class, OrderMapperImpl.class, AccessControlService.class,
+        CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderNumberAllocatorTest {
+
+    private static final int PARALLEL_ORDERS = 200;
+
+    @Autowired
+    private OrderNumberAllocator allocator;
+
+    @Autowired
+    private OrderNumberCounterRepository counterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void parallelAllocationsAcrossNodesNeverRepeat() throws Exception {
+        // Segundo "nó" com o próprio bloco em memória, dividindo o mesmo contador
+        OrderNumberAllocator otherNode =
+                new OrderNumberAllocator(counterRepository, orderRepository, transactionManager, 5);
+
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_ORDERS; i++) {
+                OrderNumberAllocator node = i % 2 == 0 ? allocator : otherNode;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    numbers.add(node.nextOrderNumber());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String prefix = "PED-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
+        assertThat(numbers).hasSize(PARALLEL_ORDERS);
+        assertThat(numbers).allSatisfy(number -> assertThat(number).matches(prefix + "\\d{4,}"));
+    }
+
+    @Test
+    void parallelOrderCreationNeverRepeatsNumbers() throws Exception {
+        Customer customer = customerRepository.save(
+                Customer.builder().name("Maria").email("maria@example.com").build());
+        Product product = productRepository.save(Product.builder()
+                .name("Kit bordado")
+                .category(Product.ProductCategory.KITS)
+                .price(new BigDecimal("49.90"))
+                .stock(PARALLEL_ORDERS)
+                .build());
+
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_ORDERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    numbers.add(orderService.createOrder(order(customer, product)).getOrderNumber());
+                    return null;
+                }));
+            }
+            start.countDown();
+            // Uma violação do número único falharia aqui
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(numbers).hasSize(PARALLEL_ORDERS);
+        assertThat(orderRepository.findAll())
+                .filteredOn(order -> order.getCustomer().getId().equals(customer.getId()))
+                .extracting(Order::getOrderNumber)
+                .containsExactlyInAnyOrderElementsOf(numbers);
+    }
+
+    @Test
+    void newDayCounterContinuesAfterNumericallyHighestOrder() {
+        String prefix = "PED-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
+        Customer customer = customerRepository.save(
+                Customer.builder().name("Joana").email("joana@example.com").build());
+        // Como texto, "...-9999" vem depois de "...-10000"
+        orderRepository.save(legacyOrder(prefix + "10000", customer));
+        orderRepository.save(legacyOrder(prefix + "9999", customer));
+        counterRepository.deleteAll();
+
+        OrderNumberAllocator allocator =
+                new OrderNumberAllocator(counterRepository, orderRepository, transactionManager, 5);
+
+        assertThat(allocator.nextOrderNumber()).isEqualTo(prefix + "10001");
+    }
+
+    private static OrderDTO order(Customer customer, Product product) {
+        OrderDTO dto = new OrderDTO();
+        dto.setCustomerId(customer.getId());
+        OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+        item.setProductId(product.getId());
+        item.setQuantity(1);
+        dto.getItems().add(item);
+        return dto;
+    }
+
+    private static Order legacyOrder(String number, Customer customer) {
+        return Order.builder()
+                .orderNumber(number)
+                .customer(customer)
+                .status(Order.OrderStatus.PENDING)
+                .orderDate(LocalDateTime.now())
+                .totalAmount(new BigDecimal("10.00"))
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.dto.CursorPageDTO;
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.exception.InvalidOperationException;
+import com.artecomcarinho.mapper.OrderMapperImpl;
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.Order;
+import com.artecomcarinho.model.OrderItem;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.security.AccessControlService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({OrderService.class, OrderMapperImpl.class, OrderNumberAllocator.class, AccessControlService.class,
+        CacheConfig.class})
+class OrderServiceQueryCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = Customer.builder().name("Maria").email("maria@example.com").build();
+        entityManager.persist(customer);
+
+        Product[] products = new Product[5];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = Product.builder()
+                    .name("Produto " + i)
+                    .category(Product.ProductCategory.KITS)
+                    .price(new BigDecimal("10.00"))
+                    .stock(100)
+                    .build();
+            entityManager.persist(products[i]);
+        }
+
+        for (int i = 0; i < 30; i++) {
+            Order order = Order.builder()
+                    .orderNumber("PED-TEST-" + i)
+                    .customer(customer)
+                    .status(i % 2 == 0 ? Order.OrderStatus.PENDING : Order.OrderStatus.DELIVERED)
+                    .orderDate(LocalDateTime.now().minusDays(i))
+                    .totalAmount(new BigDecimal("30.00"))
+                    .build();
+            for (int j = 0; j < 3; j++) {
+                order.getItems().add(OrderItem.builder()
+                        .order(order)
+                        .product(products[(i + j) % products.length])
+                        .quantity(1)
+                        .unitPrice(new BigDecimal("10.00"))
+                        .subtotal(new BigDecimal("10.00"))
+                        .build());
+            }
+            entityManager.persist(order);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllOrdersUsesConstantQueriesPerPage() {
+        Page<OrderDTO> page = orderService.getAllOrders(
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "orderDate")));
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getContent()).allSatisfy(dto -> assertThat(dto.getItems()).hasSize(3));
+        assertThat(page.getContent().get(0).getOrderNumber()).isEqualTo("PED-TEST-0");
+        // ids da página + count + grafo (cliente, itens e produtos)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void getOrdersByStatusUsesConstantQueriesPerPage() {
+        Page<OrderDTO> page = orderService.getOrdersByStatus(Order.OrderStatus.PENDING,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "orderDate")));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getContent()).allSatisfy(dto -> assertThat(dto.getCustomerName()).isEqualTo("Maria"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void createOrderLoadsAllProductsInOneQuery() {
+        List<Product> products = entityManager
+                .createQuery("select p from Product p order by p.id", Product.class)
+                .getResultList();
+        entityManager.clear();
+
+        OrderDTO dto = new OrderDTO();
+        dto.setCustomerId(entityManager.createQuery("select c.id from Customer c", Long.class).getSingleResult());
+        for (int i = 0; i < 20; i++) {
+            OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+            item.setProductId(products.get(i % products.size()).getId());
+            item.setQuantity(1);
+            dto.getItems().add(item);
+        }
+        statistics.clear();
+
+        OrderDTO created = orderService.createOrder(dto);
+        entityManager.flush();
+
+        assertThat(created.getItems()).hasSize(20);
+        // um único select para os 5 produtos, nenhum carregamento individual
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(products.size() + 1);
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        // pedido e itens vão em lotes JDBC: menos statements do que linhas inseridas (com IDENTITY seria um por linha)
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(21);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(statistics.getEntityInsertCount());
+
+        // baixa de estoque: um único lote JDBC com um UPDATE por produto, em ordem de id
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertThat(batch.getValue()).extracting(args -> args[2])
+                .containsExactlyElementsOf(products.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void scrollOrdersWalksAllOrdersWithoutCountQuery() {
+        List<String> numbers = new ArrayList<>();
+        String after = null;
+        do {
+            statistics.clear();
+            CursorPageDTO<OrderDTO> page = orderService.scrollOrders(after, 7);
+            page.getContent().forEach(dto -> numbers.add(dto.getOrderNumber()));
+            after = page.getNextCursor();
+            // ids por keyset + grafo, sem count
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        } while (after != null);
+        assertThat(numbers).hasSize(30).doesNotHaveDuplicates();
+        assertThat(numbers.get(0)).isEqualTo("PED-TEST-0");
+    }
+
+    @Test
+    void scrollRejectsCursorOfAnotherShape() {
+        String productCursor = new KeysetCursor(null, 5L).encode();
+        String orderCursor = new KeysetCursor(LocalDateTime.now(), 5L).encode();
+
+        // Cursor só com id ligaria data nula na consulta e devolveria página vazia
+        assertThatThrownBy(() -> orderService.scrollOrders(productCursor, 7))
+                .isInstanceOf(InvalidOperationException.class);
+        assertThatThrownBy(() -> orderService.scrollOrdersByStatus(Order.OrderStatus.PENDING, productCursor, 7))
+                .isInstanceOf(InvalidOperationException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(orderCursor, KeysetCursor.Shape.ID))
+                .isInstanceOf(InvalidOperationException.class);
+
+        assertThat(orderService.scrollOrders(orderCursor, 7).getContent()).isNotEmpty();
+    }
+}
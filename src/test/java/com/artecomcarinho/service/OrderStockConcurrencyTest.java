@@ -0,0 +1,128 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.exception.InsufficientStockException;
+import com.artecomcarinho.mapper.OrderMapperImpl;
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.repository.CustomerRepository;
+import com.artecomcarinho.repository.OrderRepository;
+import com.artecomcarinho.repository.ProductRepository;
+import com.artecomcarinho.security.AccessControlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({OrderService.class, OrderMapperImpl.class, OrderNumberAllocator.class, AccessControlService.class,
+        CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStockConcurrencyTest {
+
+    private static final int SCARCE_STOCK = 40;
+    private static final int PARALLEL_ORDERS = 120;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void concurrentOrdersNeverOversell() throws Exception {
+        Customer customer = customerRepository.save(
+                Customer.builder().name("Maria").email("maria@example.com").build());
+        Product scarce = productRepository.save(product("Kit escasso", SCARCE_STOCK));
+        Product plenty = productRepository.save(product("Kit comum", 1000));
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_ORDERS; i++) {
+                // Metade dos pedidos lista os itens na ordem inversa para exercitar a ordenação por id
+                List<Long> productIds = i % 2 == 0
+                        ? List.of(scarce.getId(), plenty.getId())
+                        : List.of(plenty.getId(), scarce.getId());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(order(customer.getId(), productIds));
+                        created.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Pedido falhou por motivo inesperado", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(created.get()).isEqualTo(SCARCE_STOCK);
+        assertThat(rejected.get()).isEqualTo(PARALLEL_ORDERS - SCARCE_STOCK);
+        assertThat(productRepository.findById(scarce.getId()).orElseThrow().getStock()).isZero();
+        assertThat(productRepository.findById(plenty.getId()).orElseThrow().getStock())
+                .isEqualTo(1000 - SCARCE_STOCK);
+        assertThat(orderRepository.count()).isEqualTo(SCARCE_STOCK);
+    }
+
+    private static Product product(String name, int stock) {
+        return Product.builder()
+                .name(name)
+                .category(Product.ProductCategory.KITS)
+                .price(new BigDecimal("10.00"))
+                .stock(stock)
+                .build();
+    }
+
+    private static OrderDTO order(Long customerId, List<Long> productIds) {
+        OrderDTO dto = new OrderDTO();
+        dto.setCustomerId(customerId);
+        List<OrderDTO.OrderItemDTO> items = new ArrayList<>();
+        for (Long productId : productIds) {
+            OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+            item.setProductId(productId);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        dto.setItems(items);
+        return dto;
+    }
+}
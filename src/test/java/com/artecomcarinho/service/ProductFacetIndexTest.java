@@ -0,0 +1,78 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.dto.PriceBucket;
+import com.artecomcarinho.dto.ProductFacetFilterDTO;
+import com.artecomcarinho.event.ProductChangedEvent;
+import com.artecomcarinho.model.Product.ProductCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Sem carga inicial: o loader só é usado no ApplicationReadyEvent
+        index = new ProductFacetIndex(null);
+        index.onProductChanged(product(1L, ProductCategory.BODYS, "29.90", List.of("P", "M"), List.of("Rosa"), false));
+        index.onProductChanged(product(2L, ProductCategory.BODYS, "79.90", List.of("M"), List.of("Azul"), true));
+        index.onProductChanged(product(3L, ProductCategory.MANTINHAS, "149.00", List.of(), List.of("Rosa", "Branco"), true));
+        index.onProductChanged(product(4L, ProductCategory.MANTINHAS, "39.90", List.of(), List.of("Azul"), false));
+    }
+
+    @Test
+    void countsEachFacetWithTheOtherFacetsFilters() {
+        ProductFacetIndex.Result result = index.query(
+                new ProductFacetFilterDTO(Set.of(ProductCategory.BODYS), null, Set.of("Rosa"), null, null),
+                PageRequest.of(0, 10));
+
+        assertThat(result.productIds()).containsExactly(1L);
+        assertThat(result.total()).isEqualTo(1);
+        // Categorias contadas só com o filtro de cor; cores só com o de categoria
+        assertThat(result.facets().categories())
+                .isEqualTo(Map.of(ProductCategory.BODYS, 1, ProductCategory.MANTINHAS, 1));
+        assertThat(result.facets().colors()).isEqualTo(Map.of("Azul", 1, "Rosa", 1));
+        assertThat(result.facets().sizes()).isEqualTo(Map.of("P", 1, "M", 1));
+        assertThat(result.facets().prices()).isEqualTo(Map.of(PriceBucket.ATE_50, 1));
+    }
+
+    @Test
+    void pagesNewestFirst() {
+        ProductFacetFilterDTO noFilter = new ProductFacetFilterDTO(null, null, null, null, null);
+
+        assertThat(index.query(noFilter, PageRequest.of(0, 3)).productIds()).containsExactly(4L, 3L, 2L);
+        ProductFacetIndex.Result second = index.query(noFilter, PageRequest.of(1, 3));
+        assertThat(second.productIds()).containsExactly(1L);
+        assertThat(second.total()).isEqualTo(4);
+        assertThat(second.facets().customizable()).isEqualTo(2);
+    }
+
+    @Test
+    void followsProductChanges() {
+        index.onProductChanged(product(2L, ProductCategory.BODYS, "219.90", List.of("G"), List.of("Azul"), true));
+        index.onProductChanged(new ProductChangedEvent(4L, "Produto 4", null, ProductCategory.MANTINHAS, false,
+                new BigDecimal("39.90"), List.of(), List.of("Azul"), false));
+
+        ProductFacetIndex.Result result = index.query(
+                new ProductFacetFilterDTO(null, null, Set.of("Azul"), null, null), PageRequest.of(0, 10));
+
+        assertThat(result.productIds()).containsExactly(2L);
+        assertThat(result.facets().sizes()).isEqualTo(Map.of("G", 1));
+        assertThat(result.facets().prices()).isEqualTo(Map.of(PriceBucket.ACIMA_DE_200, 1));
+    }
+
+    private static ProductChangedEvent product(Long id, ProductCategory category, String price,
+                                               List<String> sizes, List<String> colors, boolean customizable) {
+        return new ProductChangedEvent(id, "Produto " + id, null, category, true,
+                new BigDecimal(price), sizes, colors, customizable);
+    }
+}
@@ -0,0 +1,108 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.dto.PriceBucket;
+import com.artecomcarinho.dto.ProductFacetFilterDTO;
+import com.artecomcarinho.dto.ProductSuggestionDTO;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ProductIndexRefresher.class, ProductSnapshotLoader.class, ProductSuggestionIndex.class, ProductFacetIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductIndexRefresherTest {
+
+    @Autowired
+    private ProductIndexRefresher refresher;
+
+    @Autowired
+    private ProductSuggestionIndex suggestionIndex;
+
+    @Autowired
+    private ProductFacetIndex facetIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        suggestionIndex.load();
+        facetIndex.load();
+        refresher.start();
+    }
+
+    @Test
+    void refreshPicksUpChangesMadeByOtherNodes() {
+        // Salvo direto no repositório: nenhum evento chega a este nó
+        Product product = productRepository.save(Product.builder()
+                .name("Manta xadrez")
+                .category(Product.ProductCategory.KITS)
+                .price(new BigDecimal("89.90"))
+                .stock(3)
+                .sizes(new ArrayList<>(List.of("M")))
+                .colors(new ArrayList<>(List.of("Azul")))
+                .build());
+        assertThat(suggestionIndex.suggest("xadrez", 8)).isEmpty();
+
+        refresher.refresh();
+        assertThat(suggestionIndex.suggest("xadrez", 8))
+                .extracting(ProductSuggestionDTO::productId)
+                .containsExactly(product.getId());
+
+        product.setName("Manta listrada");
+        productRepository.save(product);
+        refresher.refresh();
+        assertThat(suggestionIndex.suggest("xadrez", 8)).isEmpty();
+        assertThat(suggestionIndex.suggest("listrada", 8))
+                .extracting(ProductSuggestionDTO::productId)
+                .containsExactly(product.getId());
+
+        product.setActive(false);
+        productRepository.save(product);
+        refresher.refresh();
+        assertThat(suggestionIndex.suggest("listrada", 8)).isEmpty();
+    }
+
+    @Test
+    void refreshUpdatesFacetsWithChangesMadeByOtherNodes() {
+        Product product = productRepository.save(Product.builder()
+                .name("Body canelado")
+                .category(Product.ProductCategory.BODYS)
+                .price(new BigDecimal("39.90"))
+                .stock(3)
+                .sizes(new ArrayList<>(List.of("RN")))
+                .colors(new ArrayList<>(List.of("Verde")))
+                .build());
+        ProductFacetFilterDTO green = new ProductFacetFilterDTO(null, null, Set.of("Verde"), null, null);
+        assertThat(facetIndex.query(green, PageRequest.of(0, 10)).productIds()).isEmpty();
+
+        refresher.refresh();
+        assertThat(facetIndex.query(green, PageRequest.of(0, 10)).productIds()).containsExactly(product.getId());
+
+        product.setColors(new ArrayList<>(List.of("Amarelo")));
+        product.setPrice(new BigDecimal("250.00"));
+        productRepository.save(product);
+        refresher.refresh();
+
+        assertThat(facetIndex.query(green, PageRequest.of(0, 10)).productIds()).isEmpty();
+        ProductFacetIndex.Result expensive = facetIndex.query(
+                new ProductFacetFilterDTO(null, null, null, Set.of(PriceBucket.ACIMA_DE_200), null), PageRequest.of(0, 10));
+        assertThat(expensive.productIds()).containsExactly(product.getId());
+        assertThat(expensive.facets().colors()).containsEntry("Amarelo", 1);
+    }
+}
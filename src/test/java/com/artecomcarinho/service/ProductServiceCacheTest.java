@@ -0,0 +1,196 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.config.ProductSearchIndexInitializer;
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.dto.ProductDTO;
+import com.artecomcarinho.dto.ResourceVersionDTO;
+import com.artecomcarinho.mapper.OrderMapperImpl;
+import com.artecomcarinho.mapper.ProductMapperImpl;
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.repository.CustomerRepository;
+import com.artecomcarinho.repository.OrderRepository;
+import com.artecomcarinho.repository.ProductRepository;
+import com.artecomcarinho.security.AccessControlService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ProductService.class, ProductSearchIndexInitializer.class, ProductSuggestionIndex.class,
+        ProductFacetIndex.class, ProductSnapshotLoader.class, CacheConfig.class, ProductMapperImpl.class,
+        OrderService.class, OrderMapperImpl.class, OrderNumberAllocator.class, AccessControlService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    private Statistics statistics;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+        productRepository.deleteAll();
+        product = productRepository.save(Product.builder()
+                .name("Toalha bordada")
+                .category(Product.ProductCategory.KITS)
+                .price(new BigDecimal("59.90"))
+                .stock(10)
+                .featured(true)
+                .images(new ArrayList<>(List.of("a.jpg", "b.jpg")))
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void featuredProductsAreServedFromCacheAfterFirstRead() {
+        List<ProductDTO> first = productService.getFeaturedProducts();
+
+        statistics.clear();
+        List<ProductDTO> second = productService.getFeaturedProducts();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(second).isEqualTo(first);
+        // O DTO em cache não pode depender da sessão que já foi fechada
+        assertThat(second.get(0).getImages()).isInstanceOf(ArrayList.class).containsExactly("a.jpg", "b.jpg");
+    }
+
+    @Test
+    void catalogVersionChangesWhenStockChanges() throws InterruptedException {
+        ResourceVersionDTO before = productService.getFeaturedVersion();
+        assertThat(before.count()).isEqualTo(1);
+        assertThat(before.lastModified()).isNotNull();
+
+        Thread.sleep(5);
+        productService.updateStock(product.getId(), -1);
+
+        ResourceVersionDTO after = productService.getFeaturedVersion();
+        assertThat(after.eTag("featured")).isNotEqualTo(before.eTag("featured"));
+        assertThat(productService.getFeaturedVersion().eTag("featured")).isEqualTo(after.eTag("featured"));
+    }
+
+    @Test
+    void catalogPageQueryCountDoesNotDependOnPageSize() {
+        for (int i = 0; i < 30; i++) {
+            productRepository.save(Product.builder()
+                    .name("Body " + i)
+                    .category(Product.ProductCategory.BODYS)
+                    .price(new BigDecimal("29.90"))
+                    .stock(5)
+                    .images(new ArrayList<>(List.of("body.jpg")))
+                    .sizes(new ArrayList<>(List.of("P", "M")))
+                    .colors(new ArrayList<>(List.of("Rosa")))
+                    .build());
+        }
+
+        statistics.clear();
+        assertThat(productService.getAllProducts(PageRequest.of(0, 5)).getContent()).hasSize(5);
+        long smallPage = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertThat(productService.getAllProducts(PageRequest.of(0, 25)).getContent()).hasSize(25);
+
+        // página + count + imagens + tamanhos + cores
+        assertThat(smallPage).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(smallPage);
+    }
+
+    @Test
+    void writesEvictCatalogCaches() {
+        assertThat(productService.getProductById(product.getId()).getStock()).isEqualTo(10);
+        assertThat(productService.getFeaturedProducts()).hasSize(1);
+
+        productService.updateStock(product.getId(), -3);
+        productService.toggleFeatured(product.getId());
+
+        assertThat(productService.getProductById(product.getId()).getStock()).isEqualTo(7);
+        assertThat(productService.getFeaturedProducts()).isEmpty();
+    }
+
+    @Test
+    void ordersEvictOnlyTheirProducts() {
+        Product other = productRepository.save(Product.builder()
+                .name("Manta")
+                .category(Product.ProductCategory.KITS)
+                .price(new BigDecimal("120.00"))
+                .stock(5)
+                .build());
+        Customer customer = customerRepository.save(Customer.builder().name("Maria").email("maria@example.com").build());
+        productService.getProductById(product.getId());
+        productService.getProductById(other.getId());
+        productService.getFeaturedProducts();
+        productService.getAllProducts(PageRequest.of(0, 10));
+
+        Long orderId = orderService.createOrder(order(customer, product, 2)).getId();
+
+        statistics.clear();
+        productService.getProductById(other.getId());
+        productService.getFeaturedProducts();
+        productService.getAllProducts(PageRequest.of(0, 10));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(productService.getProductById(product.getId()).getStock()).isEqualTo(8);
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+
+        orderService.cancelOrder(orderId);
+
+        statistics.clear();
+        productService.getProductById(other.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(productService.getProductById(product.getId()).getStock()).isEqualTo(10);
+    }
+
+    private static OrderDTO order(Customer customer, Product product, int quantity) {
+        OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+        item.setProductId(product.getId());
+        item.setQuantity(quantity);
+        OrderDTO dto = new OrderDTO();
+        dto.setCustomerId(customer.getId());
+        dto.getItems().add(item);
+        return dto;
+    }
+}
@@ -0,0 +1,104 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.config.ProductSearchIndexInitializer;
+import com.artecomcarinho.dto.ProductDTO;
+import com.artecomcarinho.mapper.ProductMapperImpl;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ProductService.class, ProductSearchIndexInitializer.class, ProductSuggestionIndex.class,
+        ProductFacetIndex.class, ProductSnapshotLoader.class, CacheConfig.class, ProductMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndexInitializer searchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        save("Toalha bordada", "Linho cru", true);
+        save("Manta de tricô", "Acabamento bordado à mão", true);
+        save("Toalha antiga", "Bordada, fora de linha", false);
+    }
+
+    @Test
+    void blankSearchProducesNoQuery() {
+        assertThat(ProductService.toPrefixTsQuery(null)).isEmpty();
+        assertThat(ProductService.toPrefixTsQuery("")).isEmpty();
+        assertThat(ProductService.toPrefixTsQuery("   ")).isEmpty();
+        assertThat(ProductService.toPrefixTsQuery("&|!:*()'")).isEmpty();
+    }
+
+    @Test
+    void lastTermIsPrefixAndAllTermsAreRequired() {
+        assertThat(ProductService.toPrefixTsQuery("toalha")).isEqualTo("toalha:*");
+        assertThat(ProductService.toPrefixTsQuery("Toalha  BORD")).isEqualTo("toalha & bord:*");
+        assertThat(ProductService.toPrefixTsQuery("kit 3 peças")).isEqualTo("kit & 3 & peças:*");
+    }
+
+    @Test
+    void punctuationAndTsQueryOperatorsNeverReachTheQuery() {
+        assertThat(ProductService.toPrefixTsQuery("toalha & !manta | (body):* <-> 'x'"))
+                .isEqualTo("toalha & manta & body & x:*");
+        assertThat(ProductService.toPrefixTsQuery("toalha, bordada.")).isEqualTo("toalha & bordada:*");
+        assertThat(ProductService.toPrefixTsQuery("d'água")).isEqualTo("d & água:*");
+    }
+
+    @Test
+    void accentedLettersArePartOfTerms() {
+        assertThat(ProductService.toPrefixTsQuery("Tricô Ação")).isEqualTo("tricô & ação:*");
+        assertThat(ProductService.toPrefixTsQuery("crochê")).isEqualTo("crochê:*");
+    }
+
+    @Test
+    void searchFallsBackToLikeWhenFullTextIsUnavailable() {
+        assertThat(searchIndex.isAvailable()).isFalse();
+
+        // Nome ou descrição, sem diferenciar maiúsculas, só produtos ativos
+        Page<ProductDTO> page = productService.searchProducts("BORDAD", PageRequest.of(0, 10, Sort.by("name")));
+        assertThat(page.getContent()).extracting(ProductDTO::getName)
+                .containsExactly("Manta de tricô", "Toalha bordada");
+
+        assertThat(productService.searchProducts("toalha", PageRequest.of(0, 10)).getContent())
+                .extracting(ProductDTO::getName)
+                .containsExactly("Toalha bordada");
+
+        Page<ProductDTO> firstPage = productService.searchProducts("bordad", PageRequest.of(0, 1, Sort.by("name")));
+        assertThat(firstPage.getTotalElements()).isEqualTo(2);
+        assertThat(firstPage.getContent()).extracting(ProductDTO::getName).containsExactly("Manta de tricô");
+    }
+
+    private void save(String name, String description, boolean active) {
+        productRepository.save(Product.builder()
+                .name(name)
+                .description(description)
+                .category(Product.ProductCategory.KITS)
+                .price(new BigDecimal("59.90"))
+                .stock(10)
+                .active(active)
+                .build());
+    }
+}
@@ -0,0 +1,65 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.dto.ProductSuggestionDTO;
+import com.artecomcarinho.event.ProductChangedEvent;
+import com.artecomcarinho.model.Product.ProductCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProductSuggestionIndexTest {
+
+    private ProductSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Sem carga inicial: o repositório só é usado no ApplicationReadyEvent
+        index = new ProductSuggestionIndex(null);
+        index.onProductChanged(product(1L, "Toalha de boca bordada", "TB-001", ProductCategory.TOALHA_DE_BOCA, true));
+        index.onProductChanged(product(2L, "Naninha Bebê Coração", "NAN-7", ProductCategory.NANINHAS, true));
+        index.onProductChanged(product(3L, "Toalha capuz", null, ProductCategory.TOALHA_CAPUZ, true));
+    }
+
+    @Test
+    void matchesAnyWordPrefixIgnoringAccents() {
+        assertThat(index.suggest("bebe", 8))
+                .extracting(ProductSuggestionDTO::productId)
+                .containsExactly(2L);
+        assertThat(index.suggest("CORAÇ", 8))
+                .extracting(ProductSuggestionDTO::text)
+                .containsExactly("Naninha Bebê Coração");
+        assertThat(index.suggest("bord", 8))
+                .extracting(ProductSuggestionDTO::productId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void suggestsSkusAndCategories() {
+        assertThat(index.suggest("nan", 8))
+                .extracting(ProductSuggestionDTO::type, ProductSuggestionDTO::text)
+                .contains(
+                        tuple(ProductSuggestionDTO.Type.SKU, "NAN-7"),
+                        tuple(ProductSuggestionDTO.Type.CATEGORY, "Naninhas"));
+        assertThat(index.suggest("toalha", 2)).hasSize(2);
+    }
+
+    @Test
+    void followsProductChanges() {
+        index.onProductChanged(product(2L, "Naninha Ursinho", "NAN-7", ProductCategory.NANINHAS, true));
+        assertThat(index.suggest("bebe", 8)).isEmpty();
+        assertThat(index.suggest("urs", 8)).extracting(ProductSuggestionDTO::productId).containsExactly(2L);
+
+        index.onProductChanged(product(2L, "Naninha Ursinho", "NAN-7", ProductCategory.NANINHAS, false));
+        assertThat(index.suggest("nan", 8)).isEmpty();
+        assertThat(index.suggest("urs", 8)).isEmpty();
+    }
+
+    private static ProductChangedEvent product(Long id, String name, String sku, ProductCategory category, boolean active) {
+        return new ProductChangedEvent(id, name, sku, category, active, BigDecimal.TEN, List.of(), List.of(), false);
+    }
+}
@@ -0,0 +1,103 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.dto.ProductionCardDTO;
+import com.artecomcarinho.dto.ProductionCardEventDTO;
+import com.artecomcarinho.exception.TooManyRequestsException;
+import com.artecomcarinho.model.enums.ProductionStage;
+import com.artecomcarinho.model.enums.ProductionStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductionBoardEventHubTest {
+
+    private static final ProductionCardEventDTO EVENT = ProductionCardEventDTO.created(new ProductionCardDTO(
+            1L, "PED-1", "Maria", ProductionStage.BORDADO, ProductionStatus.PENDING, null, null, null));
+
+    // Envio travado: as filas só enchem, como com um cliente que parou de ler
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private ExecutorService senders;
+
+    @BeforeEach
+    void stallSenders() {
+        senders = Executors.newSingleThreadExecutor();
+        senders.execute(() -> {
+            try {
+                stalled.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @AfterEach
+    void releaseSenders() {
+        stalled.countDown();
+        senders.shutdownNow();
+    }
+
+    @Test
+    void fullQueueDisconnectsSubscriber() {
+        ProductionBoardEventHub hub = new ProductionBoardEventHub(10, 2, 60_000, senders);
+        SseEmitter slow = hub.subscribe();
+        hub.onCardChanged(EVENT);
+
+        // Fila cheia (heartbeat inicial + evento): heartbeat extra é descartado, evento derruba
+        hub.heartbeat();
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+
+        hub.onCardChanged(EVENT);
+        assertThat(hub.subscriberCount()).isZero();
+        assertThatThrownBy(() -> slow.send("x")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void concurrentSubscribesNeverExceedLimit() throws Exception {
+        ProductionBoardEventHub hub = new ProductionBoardEventHub(5, 1, 60_000, senders);
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            results.add(clients.submit(() -> {
+                start.await();
+                try {
+                    hub.subscribe();
+                    return true;
+                } catch (TooManyRequestsException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            accepted += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        clients.shutdown();
+
+        assertThat(accepted).isEqualTo(5);
+        assertThat(hub.subscriberCount()).isEqualTo(5);
+        assertThatThrownBy(hub::subscribe).isInstanceOf(TooManyRequestsException.class);
+
+        // Desconectados devolvem a vaga
+        hub.onCardChanged(EVENT);
+        assertThat(hub.subscriberCount()).isZero();
+        for (int i = 0; i < 5; i++) {
+            hub.subscribe();
+        }
+        assertThat(hub.subscriberCount()).isEqualTo(5);
+    }
+}
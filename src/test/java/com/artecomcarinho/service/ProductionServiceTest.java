@@ -0,0 +1,248 @@
+package com.artecomcarinho.service;
+
+import com.artecomcarinho.config.CacheConfig;
+import com.artecomcarinho.dto.BulkProductionResultDTO;
+import com.artecomcarinho.dto.BulkProductionUpdateDTO;
+import com.artecomcarinho.dto.OrderDTO;
+import com.artecomcarinho.dto.ProductionBoardDTO;
+import com.artecomcarinho.dto.ProductionCardDTO;
+import com.artecomcarinho.dto.ProductionCardEventDTO;
+import com.artecomcarinho.mapper.OrderMapperImpl;
+import com.artecomcarinho.model.Customer;
+import com.artecomcarinho.model.Order;
+import com.artecomcarinho.model.Product;
+import com.artecomcarinho.model.ProductionOrder;
+import com.artecomcarinho.model.enums.ProductionStage;
+import com.artecomcarinho.model.enums.ProductionStatus;
+import com.artecomcarinho.repository.CustomerRepository;
+import com.artecomcarinho.repository.OrderRepository;
+import com.artecomcarinho.repository.ProductRepository;
+import com.artecomcarinho.repository.ProductionOrderRepository;
+import com.artecomcarinho.security.AccessControlService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.production.board.done-limit=2"
+})
+@Import({ProductionService.class, OrderService.class, OrderMapperImpl.class, OrderNumberAllocator.class, AccessControlService.class,
+        CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class ProductionServiceTest {
+
+    @Autowired
+    private ProductionService productionService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductionOrderRepository productionOrderRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        productionOrderRepository.deleteAllInBatch();
+        customer = customerRepository.save(Customer.builder().name("Maria").email("maria@example.com").build());
+        product = productRepository.save(Product.builder()
+                .name("Kit bordado")
+                .category(Product.ProductCategory.KITS)
+                .price(new BigDecimal("10.00"))
+                .stock(100)
+                .build());
+    }
+
+    @Test
+    void createdOrderGetsProductionCard() {
+        OrderDTO created = orderService.createOrder(orderFor(customer, product));
+
+        assertThat(productionOrderRepository.findById(created.getId()))
+                .hasValueSatisfying(card -> assertThat(card.getStage()).isEqualTo(ProductionStage.BORDADO));
+    }
+
+    @Test
+    void orderEnteringProductionGetsCardWhenMissing() {
+        OrderDTO created = orderService.createOrder(orderFor(customer, product));
+        productionOrderRepository.deleteById(created.getId());
+
+        orderService.updateOrderStatus(created.getId(), Order.OrderStatus.IN_PRODUCTION);
+
+        assertThat(productionOrderRepository.existsById(created.getId())).isTrue();
+    }
+
+    @Test
+    void backfillCreatesCardsOnlyForOrdersWithoutOne() {
+        List<Order> legacy = List.of(legacyOrder("PED-LEGADO-1"), legacyOrder("PED-LEGADO-2"));
+        OrderDTO withCard = orderService.createOrder(orderFor(customer, product));
+
+        productionService.backfillMissingCards();
+        productionService.backfillMissingCards();
+
+        assertThat(productionOrderRepository.count()).isEqualTo(orderRepository.count());
+        ProductionBoardDTO board = productionService.getBoard();
+        assertThat(board.getColumns().get(ProductionStage.BORDADO))
+                .extracting(ProductionCardDTO::getOrderId)
+                .contains(legacy.get(0).getId(), legacy.get(1).getId(), withCard.getId());
+    }
+
+    @Test
+    void boardUsesFixedQueriesAndCapsDoneColumn() {
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            orderIds.add(orderService.createOrder(orderFor(customer, product)).getId());
+        }
+        for (int i = 0; i < 4; i++) {
+            ProductionOrder card = productionOrderRepository.findById(orderIds.get(i)).orElseThrow();
+            card.setStage(ProductionStage.CONCLUIDO);
+            productionOrderRepository.save(card);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ProductionBoardDTO board = productionService.getBoard();
+
+        // em andamento + últimos concluídos + itens
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(board.getColumns().get(ProductionStage.BORDADO))
+                .extracting(ProductionCardDTO::getOrderId)
+                .containsExactly(orderIds.get(5), orderIds.get(4));
+        assertThat(board.getColumns().get(ProductionStage.CONCLUIDO)).hasSize(2);
+        assertThat(board.getColumns().get(ProductionStage.BORDADO).get(0).getItems())
+                .singleElement()
+                .satisfies(item -> assertThat(item.getName()).isEqualTo("Kit bordado"));
+
+        Page<ProductionCardDTO> done = productionService.getColumn(ProductionStage.CONCLUIDO, PageRequest.of(1, 2));
+        assertThat(done.getTotalElements()).isEqualTo(4);
+        assertThat(done.getContent()).extracting(ProductionCardDTO::getOrderId)
+                .containsExactlyInAnyOrder(orderIds.get(0), orderIds.get(1));
+    }
+
+    @Test
+    void moveNextPublishesCardDelta() {
+        OrderDTO created = orderService.createOrder(orderFor(customer, product));
+        applicationEvents.clear();
+
+        productionService.moveNext(created.getId());
+
+        assertThat(applicationEvents.stream(ProductionCardEventDTO.class))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.type()).isEqualTo(ProductionCardEventDTO.Type.MOVED);
+                    assertThat(event.previousStage()).isEqualTo(ProductionStage.BORDADO);
+                    assertThat(event.card().getStage()).isEqualTo(ProductionStage.COSTURA);
+                    assertThat(event.card().getItems()).hasSize(1);
+                });
+    }
+
+    @Test
+    void bulkUpdateMovesCardsWithOneUpdateAndReportsEachId() {
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orderIds.add(orderService.createOrder(orderFor(customer, product)).getId());
+        }
+        // O terceiro já está no destino
+        BulkProductionUpdateDTO first = new BulkProductionUpdateDTO();
+        first.setOrderIds(List.of(orderIds.get(2)));
+        first.setStage(ProductionStage.COSTURA);
+        productionService.bulkUpdate(first);
+        applicationEvents.clear();
+
+        BulkProductionUpdateDTO dto = new BulkProductionUpdateDTO();
+        dto.setOrderIds(List.of(-1L, orderIds.get(2), orderIds.get(0), 999_999L, orderIds.get(1)));
+        dto.setStage(ProductionStage.COSTURA);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkProductionResultDTO result = productionService.bulkUpdate(dto);
+
+        // cards + update + itens
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(result.getCards()).extracting(ProductionCardDTO::getOrderId)
+                .containsExactly(orderIds.get(2), orderIds.get(0), orderIds.get(1));
+        assertThat(result.getCards()).allSatisfy(card -> {
+            assertThat(card.getStage()).isEqualTo(ProductionStage.COSTURA);
+            assertThat(card.getStatus()).isEqualTo(ProductionStatus.PENDING);
+            assertThat(card.getItems()).hasSize(1);
+        });
+        assertThat(result.getResults()).containsExactly(
+                new BulkProductionResultDTO.Result(-1L, BulkProductionResultDTO.Outcome.INVALID),
+                new BulkProductionResultDTO.Result(orderIds.get(2), BulkProductionResultDTO.Outcome.UNCHANGED),
+                new BulkProductionResultDTO.Result(orderIds.get(0), BulkProductionResultDTO.Outcome.UPDATED),
+                new BulkProductionResultDTO.Result(999_999L, BulkProductionResultDTO.Outcome.NOT_FOUND),
+                new BulkProductionResultDTO.Result(orderIds.get(1), BulkProductionResultDTO.Outcome.UPDATED));
+
+        assertThat(applicationEvents.stream(ProductionCardEventDTO.class))
+                .allSatisfy(event -> {
+                    assertThat(event.type()).isEqualTo(ProductionCardEventDTO.Type.MOVED);
+                    assertThat(event.previousStage()).isEqualTo(ProductionStage.BORDADO);
+                })
+                .extracting(event -> event.card().getOrderId())
+                .containsExactlyInAnyOrder(orderIds.get(0), orderIds.get(1));
+        assertThat(productionService.ensureAndGet(orderIds.get(0)).getStage()).isEqualTo(ProductionStage.COSTURA);
+    }
+
+    private Order legacyOrder(String number) {
+        return orderRepository.save(Order.builder()
+                .orderNumber(number)
+                .customer(customer)
+                .status(Order.OrderStatus.PENDING)
+                .orderDate(LocalDateTime.now())
+                .totalAmount(new BigDecimal("10.00"))
+                .build());
+    }
+
+    private static OrderDTO orderFor(Customer customer, Product product) {
+        OrderDTO dto = new OrderDTO();
+        dto.setCustomerId(customer.getId());
+        OrderDTO.OrderItemDTO item = new OrderDTO.OrderItemDTO();
+        item.setProductId(product.getId());
+        item.setQuantity(1);
+        dto.getItems().add(item);
+        return dto;
+    }
+}